@@ -15,12 +15,17 @@ package org.talend.components.jdbc.configuration;
 import lombok.Data;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.action.Suggestable;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
 
+import static org.talend.components.jdbc.service.UIActionService.ACTION_SUGGESTION_TABLE_COLUMNS_NAMES;
+
 @Data
 @GridLayout(value = { @GridLayout.Row({ "dataSet" }) })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }) })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }), @GridLayout.Row("partitionColumn"),
+        @GridLayout.Row({ "partitionStrategy", "maxPartitions" }) })
 @Documentation("Table name input configuration")
 public class InputTableNameConfig implements InputConfig {
 
@@ -28,4 +33,20 @@ public class InputTableNameConfig implements InputConfig {
     @Documentation("table name dataset")
     private TableNameDataset dataSet;
 
+    @Option
+    @Suggestable(value = ACTION_SUGGESTION_TABLE_COLUMNS_NAMES, parameters = { "../dataSet" })
+    @Documentation("Numeric column used to split the table read between parallel workers, the primary key is a good candidate."
+            + "\nLeave it empty to read the table with a single worker.")
+    private String partitionColumn;
+
+    @Option
+    @Documentation("How the rows are distributed between the workers. RANGE splits the partition column values in contiguous "
+            + "ranges and MODULO uses the remainder of the partition column value by the number of workers.")
+    private PartitionStrategy partitionStrategy = PartitionStrategy.RANGE;
+
+    @Option
+    @Min(1)
+    @Documentation("Maximum number of parallel workers used to read the table")
+    private int maxPartitions = 8;
+
 }
@@ -41,6 +41,24 @@ public class JdbcConfiguration implements Serializable {
     @Documentation("list of driver meta data")
     private final List<Driver> drivers = new ArrayList<>();
 
+    @Option
+    @Documentation("Maximum number of connections of a connection pool. "
+            + "The pools are shared by all the components using the same connection settings")
+    private int poolMaxSize = 10;
+
+    @Option
+    @Documentation("Time in seconds an unused connection pool is kept open before being closed. 0 closes it as soon as it is unused")
+    private int poolIdleTimeout = 60;
+
+    @Option
+    @Documentation("Maximum number of unused driver classloaders kept loaded for the next connections")
+    private int driverCacheMaxSize = 8;
+
+    @Option
+    @Documentation("Time in seconds the existence and the columns of a table are cached for the outputs writing in it. "
+            + "0 reads them from the database for each output")
+    private int tableMetadataCacheTtl = 60;
+
     @Data
     @NoArgsConstructor
     @EqualsAndHashCode(of = { "id", "className" })
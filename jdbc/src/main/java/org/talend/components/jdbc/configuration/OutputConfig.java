@@ -20,6 +20,7 @@ import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.action.Suggestable;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.condition.ActiveIfs;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.constraint.Required;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
@@ -40,7 +41,8 @@ import static org.talend.sdk.component.api.configuration.condition.ActiveIfs.Ope
         @GridLayout.Row("varcharLength"), @GridLayout.Row("keys"), @GridLayout.Row("sortKeys"),
         @GridLayout.Row("distributionStrategy"), @GridLayout.Row("distributionKeys"), @GridLayout.Row("ignoreUpdate") })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row("dataset"),
-        @GridLayout.Row("rewriteBatchedStatements") })
+        @GridLayout.Row("rewriteBatchedStatements"), @GridLayout.Row("batchSize"), @GridLayout.Row("pipelineDepth"),
+        @GridLayout.Row("writerLanes"), @GridLayout.Row("stagingFormat") })
 @Documentation("Those properties define an output data set for the JDBC output component")
 public class OutputConfig implements Serializable {
 
@@ -107,6 +109,32 @@ public class OutputConfig implements Serializable {
     @Documentation("Rewrite batched statements, to execute one statement per batch combining values in the sql query")
     private boolean rewriteBatchedStatements = true;
 
+    @Option
+    @Min(0)
+    @Documentation("Number of records sent and committed together. The output keeps at most this number of records in memory."
+            + "\n0 uses the default batch size of the database and action: 1000 records, or 100000 records for the native "
+            + "bulk loads and Snowflake which load each batch as a file.")
+    private int batchSize = 0;
+
+    @Option
+    @Min(0)
+    @Documentation("Number of batches executed in background while the next one is bound. Each of those batches uses its own "
+            + "connection from the pool, within the pool max size.\n0 executes the batches synchronously.")
+    private int pipelineDepth = 0;
+
+    @Option
+    @Min(1)
+    @ActiveIf(target = "../actionOnData", value = { "UPDATE", "DELETE" })
+    @Documentation("Number of writers executing the records concurrently, each on its own connection from the pool, within the "
+            + "pool max size. Records are routed to a writer by the hash of their keys, so the records of a key are executed in "
+            + "order by the same writer.")
+    private int writerLanes = 1;
+
+    @Option
+    @ActiveIf(target = "../dataset.connection.dbType", value = { "Snowflake" })
+    @Documentation("Format of the files staged before being copied in Snowflake. JSON files are loaded by column name.")
+    private StagingFormat stagingFormat = StagingFormat.CSV;
+
     public ActionOnData getActionOnData() {
         if (actionOnData == null || actionOnData.isEmpty()) {
             throw new IllegalArgumentException("label on data is required");
@@ -18,7 +18,6 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.input.Producer;
 import org.talend.sdk.component.api.record.Record;
-import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import javax.annotation.PostConstruct;
@@ -26,23 +25,8 @@ import javax.annotation.PreDestroy;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Types;
-import java.util.Date;
-import java.util.stream.IntStream;
-
-import static java.sql.ResultSetMetaData.columnNoNulls;
-import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
-import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
-import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
-import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
-import static org.talend.sdk.component.api.record.Schema.Type.FLOAT;
-import static org.talend.sdk.component.api.record.Schema.Type.INT;
-import static org.talend.sdk.component.api.record.Schema.Type.LONG;
-import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
-import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 
 @Slf4j
 public abstract class AbstractInputEmitter implements Serializable {
@@ -63,7 +47,7 @@ public abstract class AbstractInputEmitter implements Serializable {
 
     private JdbcService.JdbcDatasource dataSource;
 
-    private transient Schema schema;
+    private transient ResultSetReader reader;
 
     AbstractInputEmitter(final InputConfig inputConfig, final JdbcService jdbcDriversService,
             final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
@@ -75,10 +59,11 @@ public abstract class AbstractInputEmitter implements Serializable {
 
     @PostConstruct
     public void init() {
-        if (inputConfig.getDataSet().getQuery() == null || inputConfig.getDataSet().getQuery().trim().isEmpty()) {
+        final String query = getQuery();
+        if (query == null || query.trim().isEmpty()) {
             throw new IllegalArgumentException(i18n.errorEmptyQuery());
         }
-        if (jdbcDriversService.isNotReadOnlySQLQuery(inputConfig.getDataSet().getQuery())) {
+        if (jdbcDriversService.isNotReadOnlySQLQuery(query)) {
             throw new IllegalArgumentException(i18n.errorUnauthorizedQuery());
         }
 
@@ -87,12 +72,19 @@ public abstract class AbstractInputEmitter implements Serializable {
             connection = dataSource.getConnection();
             statement = connection.createStatement();
             statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
-            resultSet = statement.executeQuery(inputConfig.getDataSet().getQuery());
+            resultSet = statement.executeQuery(query);
         } catch (final SQLException e) {
             throw new IllegalStateException(e);
         }
     }
 
+    /**
+     * @return the query executed by this emitter
+     */
+    protected String getQuery() {
+        return inputConfig.getDataSet().getQuery();
+    }
+
     @Producer
     public Record next() {
         try {
@@ -100,136 +92,10 @@ public abstract class AbstractInputEmitter implements Serializable {
                 return null;
             }
 
-            final ResultSetMetaData metaData = resultSet.getMetaData();
-            if (schema == null) {
-                final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
-                IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addField(schemaBuilder, metaData, index));
-                schema = schemaBuilder.build();
-            }
-
-            final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
-            IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addColumn(recordBuilder, metaData, index));
-            return recordBuilder.build();
-        } catch (final SQLException e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
-    private void addField(final Schema.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (javaType.equals(Integer.class.getName())) {
-                    builder.withEntry(entryBuilder.withType(INT).build());
-                } else {
-                    builder.withEntry(entryBuilder.withType(LONG).build());
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                builder.withEntry(entryBuilder.withType(FLOAT).build());
-                break;
-            case java.sql.Types.DOUBLE:
-                builder.withEntry(entryBuilder.withType(DOUBLE).build());
-                break;
-            case java.sql.Types.BOOLEAN:
-                builder.withEntry(entryBuilder.withType(BOOLEAN).build());
-                break;
-            case java.sql.Types.TIME:
-            case java.sql.Types.DATE:
-            case java.sql.Types.TIMESTAMP:
-                builder.withEntry(entryBuilder.withType(DATETIME).build());
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withEntry(entryBuilder.withType(BYTES).build());
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withEntry(entryBuilder.withType(STRING).build());
-                break;
-            }
-        } catch (final SQLException e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
-    private void addColumn(final Record.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Object value = resultSet.getObject(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (value != null) {
-                    if (javaType.equals(Integer.class.getName())) {
-                        builder.withInt(entryBuilder.withType(INT).build(), (Integer) value);
-                    } else {
-                        builder.withLong(entryBuilder.withType(LONG).build(), (Long) value);
-                    }
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                if (value != null) {
-                    builder.withFloat(entryBuilder.withType(FLOAT).build(), (Float) value);
-                }
-                break;
-            case java.sql.Types.DOUBLE:
-                if (value != null) {
-                    builder.withDouble(entryBuilder.withType(DOUBLE).build(), (Double) value);
-                }
-                break;
-            case java.sql.Types.BOOLEAN:
-                if (value != null) {
-                    builder.withBoolean(entryBuilder.withType(BOOLEAN).build(), (Boolean) value);
-                }
-                break;
-            case java.sql.Types.DATE:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Date) value).getTime()));
-                break;
-            case java.sql.Types.TIME:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Time) value).getTime()));
-                break;
-            case java.sql.Types.TIMESTAMP:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Timestamp) value).getTime()));
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withBytes(entryBuilder.withType(BYTES).build(), value == null ? null : (byte[]) value);
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withString(entryBuilder.withType(STRING).build(), value == null ? null : String.valueOf(value));
-                break;
+            if (reader == null) {
+                reader = new ResultSetReader(resultSet.getMetaData(), recordBuilderFactory);
             }
+            return reader.read(resultSet);
         } catch (final SQLException e) {
             throw new IllegalStateException(e);
         }
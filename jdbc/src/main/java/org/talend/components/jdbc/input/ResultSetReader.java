@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import static java.sql.ResultSetMetaData.columnNoNulls;
+import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
+import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
+import static org.talend.sdk.component.api.record.Schema.Type.FLOAT;
+import static org.talend.sdk.component.api.record.Schema.Type.INT;
+import static org.talend.sdk.component.api.record.Schema.Type.LONG;
+import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
+import static org.talend.sdk.component.api.record.Schema.Type.STRING;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import lombok.Getter;
+
+/**
+ * Read plan of a result set. The metadata is read once and compiled in one typed reader per column holding its schema entry,
+ * so reading a row doesn't query the metadata nor build any entry. Primitive values are read with the typed getters and
+ * {@link ResultSet#wasNull()} to avoid boxing them.
+ */
+public class ResultSetReader {
+
+    /**
+     * Max number of digits of a decimal always fitting in a long
+     */
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    @Getter
+    private final Schema schema;
+
+    private final ColumnReader[] readers;
+
+    public ResultSetReader(final ResultSetMetaData metaData, final RecordBuilderFactory recordBuilderFactory)
+            throws SQLException {
+        this.recordBuilderFactory = recordBuilderFactory;
+        final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
+        readers = new ColumnReader[metaData.getColumnCount()];
+        for (int i = 0; i < readers.length; i++) {
+            final int columnIndex = i + 1;
+            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder()
+                    .withName(metaData.getColumnName(columnIndex))
+                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
+            readers[i] = compile(metaData, columnIndex, entryBuilder);
+            schemaBuilder.withEntry(readers[i].entry);
+        }
+        schema = schemaBuilder.build();
+    }
+
+    /**
+     * @return the record of the current row of the result set
+     */
+    public Record read(final ResultSet resultSet) throws SQLException {
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(schema);
+        for (final ColumnReader reader : readers) {
+            reader.read(resultSet, builder);
+        }
+        return builder.build();
+    }
+
+    private static ColumnReader compile(final ResultSetMetaData metaData, final int columnIndex,
+            final Schema.Entry.Builder entryBuilder) throws SQLException {
+        final int sqlType = metaData.getColumnType(columnIndex);
+        switch (sqlType) {
+        case Types.SMALLINT:
+        case Types.TINYINT:
+        case Types.INTEGER:
+            if (sqlType != Types.INTEGER || Integer.class.getName().equals(metaData.getColumnClassName(columnIndex))) {
+                return intReader(columnIndex, entryBuilder.withType(INT).build());
+            }
+            return longReader(columnIndex, entryBuilder.withType(LONG).build());
+        case Types.BIGINT:
+            if (BigInteger.class.getName().equals(metaData.getColumnClassName(columnIndex))) {
+                // unsigned bigint doesn't fit in a long
+                return decimalReader(columnIndex, entryBuilder.withType(STRING).build());
+            }
+            return longReader(columnIndex, entryBuilder.withType(LONG).build());
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            // the record model has no decimal type, integral decimals that fit in a long are read as long
+            if (metaData.getScale(columnIndex) == 0 && metaData.getPrecision(columnIndex) > 0
+                    && metaData.getPrecision(columnIndex) <= MAX_LONG_PRECISION) {
+                return longReader(columnIndex, entryBuilder.withType(LONG).build());
+            }
+            return decimalReader(columnIndex, entryBuilder.withType(STRING).build());
+        case Types.FLOAT:
+        case Types.REAL:
+            return new ColumnReader(entryBuilder.withType(FLOAT).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final float value = resultSet.getFloat(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        builder.withFloat(entry, value);
+                    }
+                }
+            };
+        case Types.DOUBLE:
+            return new ColumnReader(entryBuilder.withType(DOUBLE).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final double value = resultSet.getDouble(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        builder.withDouble(entry, value);
+                    }
+                }
+            };
+        case Types.BOOLEAN:
+            return new ColumnReader(entryBuilder.withType(BOOLEAN).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final boolean value = resultSet.getBoolean(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        builder.withBoolean(entry, value);
+                    }
+                }
+            };
+        case Types.DATE:
+            return new ColumnReader(entryBuilder.withType(DATETIME).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Date value = resultSet.getDate(columnIndex);
+                    builder.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                }
+            };
+        case Types.TIME:
+            return new ColumnReader(entryBuilder.withType(DATETIME).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Time value = resultSet.getTime(columnIndex);
+                    builder.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                }
+            };
+        case Types.TIMESTAMP:
+            return new ColumnReader(entryBuilder.withType(DATETIME).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final java.sql.Timestamp value = resultSet.getTimestamp(columnIndex);
+                    builder.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                }
+            };
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+            return new ColumnReader(entryBuilder.withType(BYTES).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    builder.withBytes(entry, resultSet.getBytes(columnIndex));
+                }
+            };
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.CHAR:
+            return new ColumnReader(entryBuilder.withType(STRING).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    builder.withString(entry, resultSet.getString(columnIndex));
+                }
+            };
+        default:
+            return new ColumnReader(entryBuilder.withType(STRING).build()) {
+
+                @Override
+                void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                    final Object value = resultSet.getObject(columnIndex);
+                    builder.withString(entry, value == null ? null : String.valueOf(value));
+                }
+            };
+        }
+    }
+
+    private static ColumnReader intReader(final int columnIndex, final Schema.Entry entry) {
+        return new ColumnReader(entry) {
+
+            @Override
+            void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                final int value = resultSet.getInt(columnIndex);
+                if (!resultSet.wasNull()) {
+                    builder.withInt(entry, value);
+                }
+            }
+        };
+    }
+
+    private static ColumnReader longReader(final int columnIndex, final Schema.Entry entry) {
+        return new ColumnReader(entry) {
+
+            @Override
+            void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                final long value = resultSet.getLong(columnIndex);
+                if (!resultSet.wasNull()) {
+                    builder.withLong(entry, value);
+                }
+            }
+        };
+    }
+
+    private static ColumnReader decimalReader(final int columnIndex, final Schema.Entry entry) {
+        return new ColumnReader(entry) {
+
+            @Override
+            void read(final ResultSet resultSet, final Record.Builder builder) throws SQLException {
+                final BigDecimal value = resultSet.getBigDecimal(columnIndex);
+                builder.withString(entry, value == null ? null : value.toPlainString());
+            }
+        };
+    }
+
+    private static abstract class ColumnReader {
+
+        final Schema.Entry entry;
+
+        ColumnReader(final Schema.Entry entry) {
+            this.entry = entry;
+        }
+
+        abstract void read(ResultSet resultSet, Record.Builder builder) throws SQLException;
+    }
+}
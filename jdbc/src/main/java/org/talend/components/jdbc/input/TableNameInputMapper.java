@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Split the table read on the values of the partition column, each worker reads its own range or modulo of the table.
+ * Without partition column the table is read by a single worker.
+ */
+@Slf4j
+@Version
+@Icon(value = Icon.IconType.DATASTORE)
+@PartitionMapper(name = "TableNameInput")
+@Documentation("JDBC input using table name")
+public class TableNameInputMapper implements Serializable {
+
+    /**
+     * Size counted for the columns of an unknown or larger size, like the large objects, in the estimated row size
+     */
+    private static final int MAX_COLUMN_SIZE = 1024;
+
+    private final InputTableNameConfig config;
+
+    private final JdbcService jdbcService;
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    private final I18nMessage i18n;
+
+    private final String partitionPredicate;
+
+    private transient PartitionColumnStats stats;
+
+    public TableNameInputMapper(@Option("configuration") final InputTableNameConfig config, final JdbcService jdbcService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
+        this(config, jdbcService, recordBuilderFactory, i18nMessage, null);
+    }
+
+    private TableNameInputMapper(final InputTableNameConfig config, final JdbcService jdbcService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage, final String partitionPredicate) {
+        this.config = config;
+        this.jdbcService = jdbcService;
+        this.recordBuilderFactory = recordBuilderFactory;
+        this.i18n = i18nMessage;
+        this.partitionPredicate = partitionPredicate;
+    }
+
+    /**
+     * @return the estimated size of the table in bytes, its row count by the size of its columns
+     */
+    @Assessor
+    public long estimateSize() {
+        return isPartitioned() ? getStats().count * getStats().rowSize : 1;
+    }
+
+    @Split
+    public List<TableNameInputMapper> split(@PartitionSize final long desiredSize) {
+        if (!isPartitioned()) {
+            return singletonList(this);
+        }
+
+        final PartitionColumnStats stats = getStats();
+        if (stats.count == 0) {
+            return singletonList(this);
+        }
+
+        final long size = stats.count * stats.rowSize;
+        final long partitions = desiredSize <= 0 ? config.getMaxPartitions() : (size + desiredSize - 1) / desiredSize;
+        final int count = (int) Math.max(1, Math.min(partitions, config.getMaxPartitions()));
+        if (count == 1) {
+            return singletonList(this);
+        }
+
+        final Platform platform = PlatformFactory.get(config.getDataSet().getConnection(), i18n);
+        final List<String> predicates;
+        switch (config.getPartitionStrategy()) {
+        case MODULO:
+            predicates = platform.moduloPartitions(config.getPartitionColumn(), count);
+            break;
+        case RANGE:
+        default:
+            predicates = platform.rangePartitions(config.getPartitionColumn(), stats.min, stats.max, count);
+            break;
+        }
+        log.debug("table {} read with {} partitions", config.getDataSet().getTableName(), predicates.size());
+        return predicates.stream()
+                .map(predicate -> new TableNameInputMapper(config, jdbcService, recordBuilderFactory, i18n, predicate))
+                .collect(toList());
+    }
+
+    @Emitter
+    public TableNameInputEmitter createWorker() {
+        return new TableNameInputEmitter(config, jdbcService, recordBuilderFactory, i18n, partitionPredicate);
+    }
+
+    private boolean isPartitioned() {
+        return partitionPredicate == null && config.getPartitionColumn() != null
+                && !config.getPartitionColumn().trim().isEmpty();
+    }
+
+    private PartitionColumnStats getStats() {
+        if (stats != null) {
+            return stats;
+        }
+
+        final Platform platform = PlatformFactory.get(config.getDataSet().getConnection(), i18n);
+        final String column = platform.identifier(config.getPartitionColumn());
+        final String query = "SELECT COUNT(*), MIN(" + column + "), MAX(" + column + ") FROM "
+                + platform.identifier(config.getDataSet().getTableName());
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(config.getDataSet().getConnection());
+                final Connection connection = dataSource.getConnection()) {
+            final long rowSize = estimateRowSize(connection);
+            try (final Statement statement = connection.createStatement();
+                    final ResultSet resultSet = statement.executeQuery(query)) {
+                resultSet.next();
+                stats = new PartitionColumnStats(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3), rowSize);
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        }
+        return stats;
+    }
+
+    /**
+     * Check the partition column holds integral values, the partitions are computed from its minimum and maximum values.
+     *
+     * @return the sum of the sizes of the table columns
+     */
+    private long estimateRowSize(final Connection connection) throws SQLException {
+        long rowSize = 0;
+        try (final ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+                config.getDataSet().getTableName(), null)) {
+            while (columns.next()) {
+                final int size = columns.getInt("COLUMN_SIZE");
+                rowSize += size <= 0 ? MAX_COLUMN_SIZE : Math.min(size, MAX_COLUMN_SIZE);
+                if (config.getPartitionColumn().equalsIgnoreCase(columns.getString("COLUMN_NAME"))
+                        && !isIntegral(columns.getInt("DATA_TYPE"), columns.getInt("DECIMAL_DIGITS"))) {
+                    throw new IllegalStateException(
+                            i18n.errorPartitionColumnNotIntegral(config.getPartitionColumn(), columns.getString("TYPE_NAME")));
+                }
+            }
+        }
+        return Math.max(1, rowSize);
+    }
+
+    private static boolean isIntegral(final int type, final int scale) {
+        switch (type) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+            return true;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return scale == 0;
+        default:
+            return false;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class PartitionColumnStats {
+
+        private final long count;
+
+        private final long min;
+
+        private final long max;
+
+        private final long rowSize;
+    }
+}
@@ -24,20 +24,31 @@ import org.talend.sdk.component.api.processor.AfterGroup;
 import org.talend.sdk.component.api.processor.BeforeGroup;
 import org.talend.sdk.component.api.processor.ElementListener;
 import org.talend.sdk.component.api.processor.Input;
+import org.talend.sdk.component.api.processor.OutputEmitter;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import javax.annotation.PreDestroy;
 import java.io.Serializable;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.talend.components.jdbc.service.JdbcService.checkTableExistence;
-
 @Slf4j
 public abstract class Output implements Serializable {
 
+    /**
+     * Name of the output branch of the rejected records
+     */
+    public static final String REJECT = "reject";
+
+    /**
+     * Maximum number of rejects logged by minute, the others are only counted in a summary
+     */
+    private static final int MAX_LOGGED_REJECTS = 10;
+
+    private static final long REJECT_LOG_WINDOW = 60_000;
+
     private final OutputConfig configuration;
 
     @Getter
@@ -45,6 +56,8 @@ public abstract class Output implements Serializable {
 
     private final I18nMessage i18n;
 
+    private final RecordBuilderFactory recordBuilderFactory;
+
     private transient List<Record> records;
 
     private transient JdbcService.JdbcDatasource datasource;
@@ -55,10 +68,20 @@ public abstract class Output implements Serializable {
 
     private transient boolean init;
 
-    public Output(final OutputConfig outputConfig, final JdbcService jdbcService, final I18nMessage i18nMessage) {
+    private transient int batchSize;
+
+    private transient long rejectLogWindow;
+
+    private transient int loggedRejects;
+
+    private transient long unloggedRejects;
+
+    public Output(final OutputConfig outputConfig, final JdbcService jdbcService, final I18nMessage i18nMessage,
+            final RecordBuilderFactory recordBuilderFactory) {
         this.configuration = outputConfig;
         this.jdbcService = jdbcService;
         this.i18n = i18nMessage;
+        this.recordBuilderFactory = recordBuilderFactory;
     }
 
     protected abstract QueryManager getQueryManager();
@@ -71,21 +94,28 @@ public abstract class Output implements Serializable {
     }
 
     @ElementListener
-    public void elementListener(@Input final Record record) throws SQLException {
+    public void elementListener(@Input final Record record,
+            @org.talend.sdk.component.api.processor.Output(REJECT) final OutputEmitter<Record> rejects) throws SQLException {
         if (!init) {
             // prevent creating db connection if no records
             // it's mostly useful for streaming scenario
             lazyInit();
         }
         records.add(record);
+        if (records.size() >= batchSize) {
+            flush(rejects);
+        }
     }
 
     private void lazyInit() throws SQLException {
         this.init = true;
+        this.batchSize = configuration.getBatchSize() > 0 ? configuration.getBatchSize()
+                : getPlatform().defaultBatchSize(configuration.getActionOnData());
         this.datasource = jdbcService.createDataSource(configuration.getDataset().getConnection(),
                 configuration.isRewriteBatchedStatements());
         if (this.tableExistsCheck == null) {
-            this.tableExistsCheck = checkTableExistence(configuration.getDataset().getTableName(), datasource);
+            this.tableExistsCheck = jdbcService.getTableMetadata(configuration.getDataset().getTableName(), datasource)
+                    .isExists();
         }
         if (!this.tableExistsCheck && !this.configuration.isCreateTableIfNotExists()) {
             throw new IllegalStateException(this.i18n.errorTaberDoesNotExists(this.configuration.getDataset().getTableName()));
@@ -93,28 +123,82 @@ public abstract class Output implements Serializable {
     }
 
     @AfterGroup
-    public void afterGroup() throws SQLException {
+    public void afterGroup(@org.talend.sdk.component.api.processor.Output(REJECT) final OutputEmitter<Record> rejects)
+            throws SQLException {
+        flush(rejects);
+        final List<Reject> discards;
+        try {
+            discards = getQueryManager().waitForCompletion();
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+        reject(discards, rejects);
+    }
+
+    /**
+     * Execute and commit the buffered records, this keeps the memory bounded by the batch size and not by the group size.
+     */
+    private void flush(final OutputEmitter<Record> rejects) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
         if (!tableExistsCheck && !tableCreated && configuration.isCreateTableIfNotExists()) {
-            try (final Connection connection = datasource.getConnection()) {
-                getPlatform().createTableIfNotExist(connection, configuration.getDataset().getTableName(),
-                        configuration.getKeys(), configuration.getSortKeys(), configuration.getDistributionStrategy(),
-                        configuration.getDistributionKeys(), configuration.getVarcharLength(), records);
-                tableCreated = true;
-            }
+            getPlatform().createTableIfNotExist(jdbcService, datasource, configuration.getDataset().getTableName(),
+                    configuration.getKeys(), configuration.getSortKeys(), configuration.getDistributionStrategy(),
+                    configuration.getDistributionKeys(), configuration.getVarcharLength(), records);
+            tableCreated = true;
         }
 
-        // TODO : handle discarded records
+        final List<Reject> discards;
         try {
-            final List<Reject> discards = getQueryManager().execute(records, datasource);
-            discards.stream().map(Object::toString).forEach(log::error);
+            discards = getQueryManager().execute(records, datasource);
         } catch (final Exception e) {
-            records.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
+            records.stream().map(r -> new Reject(e.getMessage(), r)).forEach(this::log);
             throw new IllegalStateException(e);
         }
+        records = new ArrayList<>();
+        reject(discards, rejects);
+    }
+
+    /**
+     * Emit the rejected records on the reject branch
+     */
+    private void reject(final List<Reject> discards, final OutputEmitter<Record> rejects) {
+        for (final Reject reject : discards) {
+            log(reject);
+            rejects.emit(reject.toRecord(recordBuilderFactory));
+        }
+    }
+
+    /**
+     * Log the first rejects of each minute, the following ones are counted and summarized at the end of the minute.
+     */
+    private void log(final Reject reject) {
+        final long now = System.currentTimeMillis();
+        if (now - rejectLogWindow >= REJECT_LOG_WINDOW) {
+            summarizeRejects();
+            rejectLogWindow = now;
+            loggedRejects = 0;
+        }
+        if (loggedRejects < MAX_LOGGED_REJECTS) {
+            loggedRejects++;
+            log.error(reject.toString());
+        } else {
+            unloggedRejects++;
+        }
+    }
+
+    private void summarizeRejects() {
+        if (unloggedRejects > 0) {
+            log.error(unloggedRejects + " more records were rejected, they are emitted on the " + REJECT + " output");
+            unloggedRejects = 0;
+        }
     }
 
     @PreDestroy
     public void preDestroy() {
+        summarizeRejects();
+        getQueryManager().close();
         if (datasource != null) {
             datasource.close();
         }
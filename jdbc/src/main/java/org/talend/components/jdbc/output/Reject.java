@@ -16,6 +16,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 /**
  * Rejected record with reject reason
@@ -33,6 +35,30 @@ public class Reject {
 
     private final Record record;
 
+    /**
+     * @return the reject as a record of its sql state, error code and message, and of the rejected record. All the rejects
+     * have those four entries, the unknown sql states, error codes and messages are null.
+     */
+    public Record toRecord(final RecordBuilderFactory factory) {
+        final Schema.Entry sqlStateEntry = nullableEntry(factory, "sqlState", Schema.Type.STRING);
+        final Schema.Entry errorCodeEntry = nullableEntry(factory, "errorCode", Schema.Type.INT);
+        final Schema.Entry messageEntry = nullableEntry(factory, "message", Schema.Type.STRING);
+        final Schema.Entry recordEntry = factory.newEntryBuilder().withName("record").withType(Schema.Type.RECORD)
+                .withElementSchema(record.getSchema()).build();
+        final Record.Builder builder = factory.newRecordBuilder(factory.newSchemaBuilder(Schema.Type.RECORD)
+                .withEntry(sqlStateEntry).withEntry(errorCodeEntry).withEntry(messageEntry).withEntry(recordEntry).build());
+        builder.withString(sqlStateEntry, sqlState);
+        if (errorCode != null) {
+            // a nullable entry of the schema left unset is null
+            builder.withInt(errorCodeEntry, errorCode);
+        }
+        return builder.withString(messageEntry, msg).withRecord(recordEntry, record).build();
+    }
+
+    private static Schema.Entry nullableEntry(final RecordBuilderFactory factory, final String name, final Schema.Type type) {
+        return factory.newEntryBuilder().withName(name).withType(type).withNullable(true).build();
+    }
+
     @Override
     public String toString() {
         return "{\"sqlState\": \"" + sqlState + "\", \"errorCode\":" + errorCode + ", \"msg\": \"" + msg + "\", \"record\":"
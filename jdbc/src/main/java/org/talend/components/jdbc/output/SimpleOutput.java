@@ -5,8 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.output.statement.QueryManager;
 import org.talend.components.jdbc.output.statement.QueryManagerFactory;
-import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.component.Icon;
@@ -14,6 +14,7 @@ import org.talend.sdk.component.api.component.Version;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.processor.Processor;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import java.io.Serializable;
 
@@ -25,13 +26,13 @@ import java.io.Serializable;
 @Documentation("JDBC Output component")
 public class SimpleOutput extends Output implements Serializable {
 
-    private QueryManagerImpl queryManager;
+    private QueryManager queryManager;
 
     private Platform platform;
 
     public SimpleOutput(@Option("configuration") final OutputConfig configuration, final JdbcService jdbcService,
-            final I18nMessage i18n) {
-        super(configuration, jdbcService, i18n);
+            final I18nMessage i18n, final RecordBuilderFactory recordBuilderFactory) {
+        super(configuration, jdbcService, i18n, recordBuilderFactory);
         this.platform = PlatformFactory.get(configuration.getDataset().getConnection(), i18n);
         this.queryManager = QueryManagerFactory.getQueryManager(platform, i18n, configuration);
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.components.jdbc.output.statement.ParameterBinder;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Bulk load as a single array insert, the hint tells the database how to load it.
+ */
+class ArrayInsertBulkLoader implements BulkLoader {
+
+    protected final Platform platform;
+
+    private final String hint;
+
+    ArrayInsertBulkLoader(final Platform platform, final String hint) {
+        this.platform = platform;
+        this.hint = hint;
+    }
+
+    @Override
+    public void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final List<Record> records) throws SQLException {
+        final String sql = "INSERT " + hint + "INTO " + platform.identifier(table)
+                + columns.stream().map(c -> platform.identifier(c.getName())).collect(joining(",", "(", ")")) + " VALUES"
+                + columns.stream().map(c -> "?").collect(joining(",", "(", ")"));
+        final ParameterBinder binder = new ParameterBinder(columns);
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (final Record record : records) {
+                binder.bind(statement, 0, record);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.talend.components.jdbc.output.platforms.DriverExtensions.invoke;
+
+/**
+ * SQL Server bulk copy, the driver sends the batched inserts with its bulk copy api once enabled on the connection.
+ */
+@Slf4j
+class BulkCopyLoader extends ArrayInsertBulkLoader {
+
+    BulkCopyLoader(final Platform platform) {
+        super(platform, "");
+    }
+
+    @Override
+    public void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final List<Record> records) throws SQLException {
+        final Connection driverConnection = connection.unwrap(Connection.class);
+        final Object enabled;
+        try {
+            enabled = invoke(platform.getI18n(), driverConnection, "getUseBulkCopyForBatchInsert", new Class<?>[0]);
+        } catch (final SQLFeatureNotSupportedException e) {
+            log.debug("bulk copy of batched inserts isn't supported by this driver, using an array insert", e);
+            super.load(connection, table, columns, records);
+            return;
+        }
+        invoke(platform.getI18n(), driverConnection, "setUseBulkCopyForBatchInsert", new Class<?>[] { boolean.class }, true);
+        try {
+            super.load(connection, table, columns, records);
+        } finally {
+            // the connection goes back to the pool
+            invoke(platform.getI18n(), driverConnection, "setUseBulkCopyForBatchInsert", new Class<?>[] { boolean.class },
+                    enabled);
+        }
+    }
+}
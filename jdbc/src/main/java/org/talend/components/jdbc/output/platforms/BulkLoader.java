@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Native bulk load of records, a lot faster than batched inserts for big loads. A load is atomic, it fails or succeeds as a
+ * whole.
+ */
+public interface BulkLoader {
+
+    /**
+     * Load the records in the table, the caller commits or rolls back the load.
+     *
+     * @param connection the connection used to load the records
+     * @param table the table name
+     * @param columns the columns to load, in the table
+     * @param records the records to load
+     */
+    void load(Connection connection, String table, List<Schema.Entry> columns, List<Record> records) throws SQLException;
+}
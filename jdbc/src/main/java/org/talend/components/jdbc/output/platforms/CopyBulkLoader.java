@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.talend.components.jdbc.output.platforms.DriverExtensions.invoke;
+
+/**
+ * PostgreSQL <code>COPY FROM STDIN</code> through the CopyManager of the driver.
+ */
+class CopyBulkLoader extends CsvBulkLoader {
+
+    CopyBulkLoader(final Platform platform) {
+        super(platform);
+    }
+
+    @Override
+    protected String nullValue() {
+        return "";
+    }
+
+    @Override
+    protected String bytes(final byte[] value) {
+        return "\\x" + encodeHexString(value);
+    }
+
+    @Override
+    protected String bool(final boolean value) {
+        return String.valueOf(value);
+    }
+
+    @Override
+    protected void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final InputStream csv, final int rows) throws SQLException {
+        final Connection driverConnection = connection.unwrap(Connection.class);
+        final Object copyManager = invoke(platform.getI18n(), driverConnection, "getCopyAPI", new Class<?>[0]);
+        invoke(platform.getI18n(), copyManager, "copyIn", new Class<?>[] { String.class, InputStream.class },
+                "COPY " + platform.identifier(table)
+                        + columns.stream().map(c -> platform.identifier(c.getName())).collect(joining(",", "(", ")"))
+                        + " FROM STDIN WITH (FORMAT csv)",
+                csv);
+    }
+}
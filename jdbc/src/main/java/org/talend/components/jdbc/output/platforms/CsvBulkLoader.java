@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.talend.components.jdbc.output.statement.operations.QueryManagerImpl.valueOf;
+
+/**
+ * Bulk loader sending the records as a csv stream. The strings are always quoted, the null values format depends on the
+ * database.
+ */
+abstract class CsvBulkLoader implements BulkLoader {
+
+    // jdbc timestamps are bound in the jvm timezone, its offset keeps the instant for the columns with a timezone
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSxxx");
+
+    protected final Platform platform;
+
+    CsvBulkLoader(final Platform platform) {
+        this.platform = platform;
+    }
+
+    protected abstract String nullValue();
+
+    protected abstract String bytes(byte[] value);
+
+    protected abstract String bool(boolean value);
+
+    /**
+     * @return the timestamp in the jvm timezone, with its offset
+     */
+    protected String timestamp(final ZonedDateTime value) {
+        return TIMESTAMP_FORMAT.format(value.withZoneSameInstant(ZoneId.systemDefault()));
+    }
+
+    /**
+     * @param rows the number of rows of the csv
+     */
+    protected abstract void load(Connection connection, String table, List<Schema.Entry> columns, InputStream csv,
+            int rows) throws SQLException;
+
+    @Override
+    public void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final List<Record> records) throws SQLException {
+        final ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        try (final Writer writer = new BufferedWriter(new OutputStreamWriter(csv, UTF_8))) {
+            for (final Record record : records) {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(format(record, columns.get(i)));
+                }
+                writer.write('\n');
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        load(connection, table, columns, new ByteArrayInputStream(csv.toByteArray()), records.size());
+    }
+
+    private String format(final Record record, final Schema.Entry entry) {
+        final Optional<Object> value = valueOf(record, entry);
+        if (!value.isPresent()) {
+            return nullValue();
+        }
+        switch (entry.getType()) {
+        case STRING:
+            return '"' + value.get().toString().replace("\"", "\"\"") + '"';
+        case BYTES:
+            return bytes((byte[]) value.get());
+        case BOOLEAN:
+            return bool((Boolean) value.get());
+        case DATETIME:
+            return timestamp((ZonedDateTime) value.get());
+        case FLOAT:
+            return String.valueOf(((Double) value.get()).floatValue());
+        case INT:
+        case LONG:
+        case DOUBLE:
+            return String.valueOf(value.get());
+        case RECORD:
+        case ARRAY:
+        default:
+            throw new IllegalStateException(platform.getI18n().errorUnsupportedType(entry.getType().name(), entry.getName()));
+        }
+    }
+}
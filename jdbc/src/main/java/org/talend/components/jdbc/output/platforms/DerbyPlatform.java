@@ -16,9 +16,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
 
 /**
@@ -30,8 +33,15 @@ public class DerbyPlatform extends Platform {
 
     public static final String DERBY = "derby";
 
+    private final boolean embedded;
+
     public DerbyPlatform(final I18nMessage i18n) {
+        this(i18n, false);
+    }
+
+    public DerbyPlatform(final I18nMessage i18n, final boolean embedded) {
         super(i18n);
+        this.embedded = embedded;
     }
 
     @Override
@@ -111,4 +121,46 @@ public class DerbyPlatform extends Platform {
         }
     }
 
+    /**
+     * Derby has no parameters limit but generates a class for each statement, that limit keeps their compilation cheap
+     */
+    @Override
+    public int maxParameters() {
+        return 1000;
+    }
+
+    /**
+     * 40XL1 is raised when a lock can't be obtained within the lock wait timeout
+     */
+    @Override
+    public Set<String> retryableSQLStates() {
+        return new HashSet<>(asList("40001", "40XL1"));
+    }
+
+    /**
+     * The network server drops the connection when preparing a MERGE statement, only embedded databases can use it.
+     */
+    @Override
+    public boolean hasNativeUpsert() {
+        return embedded;
+    }
+
+    /**
+     * Derby merges only from base tables, the row values are bound as parameters of each clause instead.
+     */
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        parameters.addAll(keys);
+        parameters.addAll(updatable);
+        parameters.addAll(columns);
+        return "MERGE INTO " + identifier(table) + " USING SYSIBM.SYSDUMMY1 ON "
+                + keys.stream().map(c -> identifier(table) + "." + identifier(c) + " = ?").collect(joining(" AND "))
+                + (updatable.isEmpty() ? ""
+                        : " WHEN MATCHED THEN UPDATE SET "
+                                + updatable.stream().map(this::identifier).map(c -> c + " = ?").collect(joining(", ")))
+                + " WHEN NOT MATCHED THEN INSERT " + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES" + columns.stream().map(c -> "?").collect(joining(",", "(", ")"));
+    }
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.components.jdbc.service.I18nMessage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Call the extensions of the jdbc drivers. The drivers are loaded in their own classloader, they are only reachable by
+ * reflection on the unwrapped connections and statements.
+ */
+final class DriverExtensions {
+
+    private DriverExtensions() {
+        // no-op
+    }
+
+    static Object invoke(final I18nMessage i18n, final Object target, final String name, final Class<?>[] types,
+            final Object... args) throws SQLException {
+        try {
+            return target.getClass().getMethod(name, types).invoke(target, args);
+        } catch (final NoSuchMethodException e) {
+            throw new SQLFeatureNotSupportedException(i18n.errorBulkLoadUnsupportedDriver(target.getClass().getName()), e);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (final InvocationTargetException e) {
+            if (e.getTargetException() instanceof SQLException) {
+                throw (SQLException) e.getTargetException();
+            }
+            throw new SQLException(e.getTargetException());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.talend.components.jdbc.output.platforms.DriverExtensions.invoke;
+import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+
+/**
+ * MySQL and MariaDB <code>LOAD DATA LOCAL INFILE</code> reading a stream instead of a file. The connection needs the
+ * <code>allowLoadLocalInfile=true</code> property, it is not set by default as it lets the server read the client files.
+ */
+class LoadDataBulkLoader extends CsvBulkLoader {
+
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    LoadDataBulkLoader(final Platform platform) {
+        super(platform);
+    }
+
+    @Override
+    protected String nullValue() {
+        // an unquoted NULL word is the null value when fields are enclosed
+        return "NULL";
+    }
+
+    @Override
+    protected String bytes(final byte[] value) {
+        return encodeHexString(value);
+    }
+
+    @Override
+    protected String bool(final boolean value) {
+        return value ? "1" : "0";
+    }
+
+    /**
+     * The loaded values can't have an offset, the timestamps are written in UTC and converted to the session timezone
+     */
+    @Override
+    protected String timestamp(final ZonedDateTime value) {
+        return UTC_FORMAT.format(value.withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    @Override
+    protected void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final InputStream csv, final int rows) throws SQLException {
+        // binary values are sent in hexadecimal and timestamps in UTC, decoded from user variables
+        final String decode = IntStream.range(0, columns.size()).filter(i -> isDecoded(columns.get(i)))
+                .mapToObj(i -> platform.identifier(columns.get(i).getName()) + " = "
+                        + (BYTES == columns.get(i).getType() ? "UNHEX(@c" + i + ")"
+                                : "CONVERT_TZ(@c" + i + ", '+00:00', @@session.time_zone)"))
+                .collect(joining(", "));
+        final String sql = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + platform.identifier(table)
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY ''"
+                + " LINES TERMINATED BY '\\n' "
+                + IntStream.range(0, columns.size())
+                        .mapToObj(i -> isDecoded(columns.get(i)) ? "@c" + i
+                                : platform.identifier(columns.get(i).getName()))
+                        .collect(joining(",", "(", ")"))
+                + (decode.isEmpty() ? "" : " SET " + decode);
+        try (final Statement statement = connection.createStatement()) {
+            invoke(platform.getI18n(), statement.unwrap(Statement.class), "setLocalInfileInputStream",
+                    new Class<?>[] { InputStream.class }, csv);
+            statement.execute(sql);
+            // a local load skips the rows it can't insert and truncates the invalid values with a warning
+            final SQLWarning warning = statement.getWarnings();
+            final int loaded = statement.getUpdateCount();
+            if (loaded != rows || warning != null) {
+                throw new IllegalStateException(platform.getI18n().errorBulkLoadIncomplete(loaded, rows,
+                        warning == null ? "" : warning.getMessage()), warning);
+            }
+        }
+    }
+
+    private static boolean isDecoded(final Schema.Entry column) {
+        return BYTES == column.getType() || DATETIME == column.getType();
+    }
+}
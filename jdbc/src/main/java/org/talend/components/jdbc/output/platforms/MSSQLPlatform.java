@@ -12,11 +12,13 @@
  */
 package org.talend.components.jdbc.output.platforms;
 
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -68,6 +70,11 @@ public class MSSQLPlatform extends Platform {
                 && 2714 == ((SQLException) e).getErrorCode();
     }
 
+    @Override
+    protected String modulo(final String expression, final int divisor) {
+        return "(" + expression + " % " + divisor + ")";
+    }
+
     private String createColumns(final List<Column> columns) {
         return columns.stream().map(this::createColumn).collect(Collectors.joining(","));
     }
@@ -109,4 +116,59 @@ public class MSSQLPlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean hasNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        parameters.addAll(columns);
+        // sql server requires the semicolon terminating merge statements
+        return "MERGE INTO " + identifier(table) + " AS target USING (VALUES "
+                + columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")")) + ") AS source "
+                + columns.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")"))
+                + mergeClauses(columns, keys, updatable) + ";";
+    }
+
+    /**
+     * Reuse the server side prepared statements of the queries executed again by the following groups
+     */
+    @Override
+    public void addDataSourceProperties(final HikariDataSource dataSource) {
+        super.addDataSourceProperties(dataSource);
+        dataSource.addDataSourceProperty("disableStatementPooling", "false");
+        dataSource.addDataSourceProperty("statementPoolingCacheSize", "32");
+    }
+
+    /**
+     * https://docs.microsoft.com/en-us/sql/sql-server/maximum-capacity-specifications-for-sql-server
+     */
+    @Override
+    public int maxParameters() {
+        return 2100;
+    }
+
+    /**
+     * https://docs.microsoft.com/en-us/sql/t-sql/queries/table-value-constructor-transact-sql
+     */
+    @Override
+    public int maxRowsPerStatement() {
+        return 1000;
+    }
+
+    /**
+     * 2627 and 2601 are the violations of a unique constraint and of a unique index, raised with the 23000 sql state
+     */
+    @Override
+    public boolean isDuplicateKey(final String sqlState, final Integer errorCode) {
+        return errorCode != null && (errorCode == 2627 || errorCode == 2601);
+    }
+
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.of(new BulkCopyLoader(this));
+    }
+
 }
@@ -15,9 +15,16 @@ package org.talend.components.jdbc.output.platforms;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Locale.ROOT;
+
 @Slf4j
 public class MariaDbPlatform extends Platform {
 
@@ -37,6 +44,14 @@ public class MariaDbPlatform extends Platform {
         return "`";
     }
 
+    /**
+     * The driver sends the batched statements in multi statements or multi rows queries when rewriting them
+     */
+    @Override
+    public boolean rewritesBatchedStatements(final boolean rewriteBatchedStatements) {
+        return rewriteBatchedStatements;
+    }
+
     @Override
     protected String buildQuery(final Table table) {
         // keep the string builder for readability
@@ -102,4 +117,41 @@ public class MariaDbPlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean hasNativeUpsert() {
+        return true;
+    }
+
+    /**
+     * ON DUPLICATE KEY UPDATE matches the rows on any unique index, the keys need to be the only one
+     */
+    @Override
+    public boolean supportsNativeUpsert(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        final Set<String> columns = keys.stream().map(key -> key.toLowerCase(ROOT)).collect(Collectors.toSet());
+        final Collection<Set<String>> indexes = uniqueIndexes(connection, table);
+        return !indexes.isEmpty() && indexes.stream().allMatch(columns::equals);
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        // a no-op update of the keys keeps the existing rows untouched
+        return insertQuery(table, columns, parameters) + " ON DUPLICATE KEY UPDATE " + (updatable.isEmpty() ? keys : updatable)
+                .stream().map(this::identifier).map(c -> c + " = VALUES(" + c + ")").collect(Collectors.joining(","));
+    }
+
+    /**
+     * ER_DUP_ENTRY, 1062, is raised with the generic 23000 sql state
+     */
+    @Override
+    public boolean isDuplicateKey(final String sqlState, final Integer errorCode) {
+        return errorCode != null && errorCode == 1062;
+    }
+
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.of(new LoadDataBulkLoader(this));
+    }
+
 }
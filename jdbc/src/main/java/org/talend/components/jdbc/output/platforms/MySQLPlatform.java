@@ -16,9 +16,16 @@ import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Locale.ROOT;
+
 /**
  * syntax detail can be found at <a href="https://dev.mysql.com/doc/refman/8.0/en/create-table.html syntax
  * detail">https://dev.mysql.com/doc/refman/8.0/en/create-table.html</a>
@@ -46,6 +53,18 @@ public class MySQLPlatform extends Platform {
     public void addDataSourceProperties(HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
         dataSource.addDataSourceProperty("useCursorFetch", true);
+        // the queries of the output are the same for all the groups of a schema, their parsing is reused
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", "250");
+        dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "16384");
+    }
+
+    /**
+     * The driver sends the batched statements in multi statements or multi rows queries when rewriting them
+     */
+    @Override
+    public boolean rewritesBatchedStatements(final boolean rewriteBatchedStatements) {
+        return rewriteBatchedStatements;
     }
 
     @Override
@@ -113,4 +132,41 @@ public class MySQLPlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean hasNativeUpsert() {
+        return true;
+    }
+
+    /**
+     * ON DUPLICATE KEY UPDATE matches the rows on any unique index, the keys need to be the only one
+     */
+    @Override
+    public boolean supportsNativeUpsert(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        final Set<String> columns = keys.stream().map(key -> key.toLowerCase(ROOT)).collect(Collectors.toSet());
+        final Collection<Set<String>> indexes = uniqueIndexes(connection, table);
+        return !indexes.isEmpty() && indexes.stream().allMatch(columns::equals);
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        // a no-op update of the keys keeps the existing rows untouched
+        return insertQuery(table, columns, parameters) + " ON DUPLICATE KEY UPDATE " + (updatable.isEmpty() ? keys : updatable)
+                .stream().map(this::identifier).map(c -> c + " = VALUES(" + c + ")").collect(Collectors.joining(","));
+    }
+
+    /**
+     * ER_DUP_ENTRY, 1062, is raised with the generic 23000 sql state
+     */
+    @Override
+    public boolean isDuplicateKey(final String sqlState, final Integer errorCode) {
+        return errorCode != null && errorCode == 1062;
+    }
+
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.of(new LoadDataBulkLoader(this));
+    }
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Object store the staged bulk loads upload their files to, the database then copies the files from the store. The
+ * implementations are discovered with the {@link java.util.ServiceLoader}, a platform without one available loads the
+ * records with batched inserts.
+ */
+public interface ObjectStore {
+
+    /**
+     * Upload an object, replacing it if it exists.
+     *
+     * @param key the key of the object in the store, relative to the store location
+     * @param content the content of the object
+     * @return the location of the object, as the database reads it
+     */
+    String put(String key, InputStream content) throws IOException;
+
+    /**
+     * Remove an object, once the database copied it.
+     *
+     * @param key the key of the object in the store
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * @return the clause authorizing the database to read the store, like the credentials or the role of a COPY statement,
+     * empty when the database needs none
+     */
+    String authorization();
+}
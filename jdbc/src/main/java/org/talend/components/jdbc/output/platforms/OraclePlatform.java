@@ -17,9 +17,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
+
 /**
  * https://docs.oracle.com/cd/B28359_01/server.111/b28310/tables003.htm#ADMIN01503
  */
@@ -72,6 +77,7 @@ public class OraclePlatform extends Platform {
     public void addDataSourceProperties(final HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
         dataSource.addDataSourceProperty("oracle.jdbc.J2EE13Compliant", "TRUE");
+        dataSource.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", "32");
     }
 
     @Override
@@ -111,4 +117,39 @@ public class OraclePlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean hasNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        parameters.addAll(columns);
+        return "MERGE INTO " + identifier(table) + " target USING (SELECT "
+                + columns.stream().map(this::identifier).map(c -> "? " + c).collect(Collectors.joining(", "))
+                + " FROM DUAL) source" + mergeClauses(columns, keys, updatable);
+    }
+
+    /**
+     * ORA-00060, deadlock detected while waiting for resource, is raised with the sql state 61000
+     */
+    @Override
+    public Set<String> retryableSQLStates() {
+        return new HashSet<>(asList("40001", "61000"));
+    }
+
+    /**
+     * ORA-00001, unique constraint violated, is raised with the generic 23000 sql state
+     */
+    @Override
+    public boolean isDuplicateKey(final String sqlState, final Integer errorCode) {
+        return errorCode != null && errorCode == 1;
+    }
+
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.of(new ArrayInsertBulkLoader(this, "/*+ APPEND_VALUES */ "));
+    }
+
 }
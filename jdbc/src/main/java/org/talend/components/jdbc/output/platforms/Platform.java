@@ -16,17 +16,31 @@ import com.zaxxer.hikari.HikariDataSource;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.DistributionStrategy;
+import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
+import static java.util.Collections.singleton;
+import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.talend.sdk.component.api.record.Schema.Type.STRING;
@@ -35,6 +49,10 @@ import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 @Getter
 public abstract class Platform implements Serializable {
 
+    protected static final int DEFAULT_BATCH_SIZE = 1000;
+
+    protected static final int DEFAULT_BULK_BATCH_SIZE = 100000;
+
     private final I18nMessage i18n;
 
     protected Platform(I18nMessage i18n) {
@@ -52,11 +70,31 @@ public abstract class Platform implements Serializable {
      */
     protected abstract boolean isTableExistsCreationError(final Throwable e);
 
-    public void createTableIfNotExist(final Connection connection, final String name, final List<String> keys,
+    /**
+     * Create the table if it doesn't exist and update the table metadata cache of the service.
+     */
+    public void createTableIfNotExist(final JdbcService jdbcService, final JdbcService.JdbcDatasource dataSource,
+            final String name, final List<String> keys, final List<String> sortKeys,
+            final DistributionStrategy distributionStrategy, final List<String> distributionKeys, final int varcharLength,
+            final List<Record> records) throws SQLException {
+        final boolean created;
+        try (final Connection connection = dataSource.getConnection()) {
+            created = createTableIfNotExist(connection, name, keys, sortKeys, distributionStrategy, distributionKeys,
+                    varcharLength, records);
+        }
+        jdbcService.tableCreated(name, dataSource, created ? records.stream()
+                .flatMap(record -> record.getSchema().getEntries().stream()).map(Schema.Entry::getName).distinct()
+                .collect(toList()) : null);
+    }
+
+    /**
+     * @return true when the table was created, false when there is no record or when it already exists
+     */
+    public boolean createTableIfNotExist(final Connection connection, final String name, final List<String> keys,
             final List<String> sortKeys, final DistributionStrategy distributionStrategy, final List<String> distributionKeys,
             final int varcharLength, final List<Record> records) throws SQLException {
         if (records.isEmpty()) {
-            return;
+            return false;
         }
 
         final String sql = buildQuery(
@@ -64,6 +102,7 @@ public abstract class Platform implements Serializable {
         try (final Statement statement = connection.createStatement()) {
             statement.executeUpdate(sql);
             connection.commit();
+            return true;
         } catch (final Throwable e) {
             connection.rollback();
             if (!isTableExistsCreationError(e)) {
@@ -71,6 +110,7 @@ public abstract class Platform implements Serializable {
             }
 
             log.trace("create table issue was ignored. The table and it's name space has been created by an other worker", e);
+            return false;
         }
     }
 
@@ -112,6 +152,209 @@ public abstract class Platform implements Serializable {
                 .collect(toList())).build();
     }
 
+    /**
+     * Split the values of a numeric column in contiguous ranges. The first range also holds the null values and the last one
+     * is left open, so the predicates cover the whole table whatever happened to it since the bounds were computed. The
+     * bounds are computed in {@link BigInteger} as the span of the values can exceed a long, and clamped to the max value.
+     *
+     * @return one where clause predicate per partition
+     */
+    public List<String> rangePartitions(final String column, final long min, final long max, final int partitions) {
+        final String name = identifier(column);
+        final BigInteger last = BigInteger.valueOf(max);
+        final BigInteger step = last.subtract(BigInteger.valueOf(min)).divide(BigInteger.valueOf(partitions))
+                .add(BigInteger.ONE);
+        final List<String> predicates = new ArrayList<>(partitions);
+        BigInteger lower = BigInteger.valueOf(min);
+        for (int i = 0; i < partitions; i++) {
+            final BigInteger upper = lower.add(step);
+            if (i == 0 && upper.compareTo(last) > 0) {
+                predicates.add("(" + name + " <= " + max + " OR " + name + " IS NULL)");
+                predicates.add(name + " > " + max);
+                break;
+            } else if (i == 0) {
+                predicates.add("(" + name + " < " + upper + " OR " + name + " IS NULL)");
+            } else if (i == partitions - 1 || upper.compareTo(last) > 0) {
+                predicates.add(name + " >= " + lower);
+                break;
+            } else {
+                predicates.add(name + " >= " + lower + " AND " + name + " < " + upper);
+            }
+            lower = upper;
+        }
+        return predicates;
+    }
+
+    /**
+     * Distribute the rows on the remainder of a numeric column value by the number of partitions.
+     * The null values are read by the first partition.
+     *
+     * @return one where clause predicate per partition
+     */
+    public List<String> moduloPartitions(final String column, final int partitions) {
+        final String name = identifier(column);
+        return IntStream.range(0, partitions)
+                .mapToObj(i -> i == 0 ? "(ABS(" + modulo(name, partitions) + ") = 0 OR " + name + " IS NULL)"
+                        : "ABS(" + modulo(name, partitions) + ") = " + i)
+                .collect(toList());
+    }
+
+    /**
+     * @return the sql expression of the remainder of the division of an expression by the divisor
+     */
+    protected String modulo(final String expression, final int divisor) {
+        return "MOD(" + expression + ", " + divisor + ")";
+    }
+
+    /**
+     * @return true when the platform inserts or updates a row in a single statement, see {@link #upsertQuery}
+     */
+    public boolean hasNativeUpsert() {
+        return false;
+    }
+
+    /**
+     * The MERGE statements match the rows on the keys themselves, the platforms whose native upsert relies on the unique
+     * indexes of the table override it.
+     *
+     * @param connection a connection to the database
+     * @param table the table name
+     * @param keys the key columns
+     * @return true when the native upsert of the table updates the row of the same keys, false to look up the keys
+     */
+    public boolean supportsNativeUpsert(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        return true;
+    }
+
+    /**
+     * @return the column names of each unique index of the table, primary key included, in lower case
+     */
+    protected Collection<Set<String>> uniqueIndexes(final Connection connection, final String table) throws SQLException {
+        final Map<String, Set<String>> indexes = new HashMap<>();
+        try (final ResultSet resultSet = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                table, true, true)) {
+            while (resultSet.next()) {
+                final String column = resultSet.getString("COLUMN_NAME");
+                // the table statistics have no column
+                if (column != null) {
+                    indexes.computeIfAbsent(resultSet.getString("INDEX_NAME"), name -> new HashSet<>())
+                            .add(column.toLowerCase(ROOT));
+                }
+            }
+        }
+        final Set<String> primaryKey = new HashSet<>();
+        try (final ResultSet resultSet = connection.getMetaData().getPrimaryKeys(connection.getCatalog(), connection.getSchema(),
+                table)) {
+            while (resultSet.next()) {
+                primaryKey.add(resultSet.getString("COLUMN_NAME").toLowerCase(ROOT));
+            }
+        }
+        if (!primaryKey.isEmpty()) {
+            indexes.put(null, primaryKey);
+        }
+        return new HashSet<>(indexes.values());
+    }
+
+    /**
+     * Build the statement inserting a row, or updating it when a row with the same keys already exists.
+     *
+     * @param table the table name
+     * @param columns the columns of the row
+     * @param keys the key columns
+     * @param updatable the columns updated when the row already exists
+     * @param parameters receives the column bound to each parameter of the statement, in the parameters order
+     * @return the upsert statement
+     */
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        throw new IllegalStateException(i18n.errorUnsupportedDatabaseAction());
+    }
+
+    /**
+     * @return an insert statement of one row with one parameter per column
+     */
+    protected String insertQuery(final String table, final List<String> columns, final List<String> parameters) {
+        parameters.addAll(columns);
+        return "INSERT INTO " + identifier(table) + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES" + columns.stream().map(c -> "?").collect(joining(",", "(", ")"));
+    }
+
+    /**
+     * @return the matching clauses of a MERGE statement of a <code>source</code> row into a <code>target</code> table
+     */
+    protected String mergeClauses(final List<String> columns, final List<String> keys, final List<String> updatable) {
+        return " ON (" + keys.stream().map(this::identifier).map(c -> "target." + c + " = source." + c).collect(joining(" AND "))
+                + ")"
+                + (updatable.isEmpty() ? ""
+                        : " WHEN MATCHED THEN UPDATE SET " + updatable.stream().map(this::identifier)
+                                .map(c -> "target." + c + " = source." + c).collect(joining(", ")))
+                + " WHEN NOT MATCHED THEN INSERT " + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES " + columns.stream().map(this::identifier).map(c -> "source." + c).collect(joining(",", "(", ")"));
+    }
+
+    /**
+     * @return the number of records sent and committed together when the output doesn't configure it, the native bulk
+     * loads send bigger batches
+     */
+    public int defaultBatchSize(final OutputConfig.ActionOnData action) {
+        return action == OutputConfig.ActionOnData.BULK_LOAD && bulkLoader().isPresent() ? DEFAULT_BULK_BATCH_SIZE
+                : DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * @return the maximum number of parameters of a statement, 0 when the rows are inserted one per statement
+     */
+    public int maxParameters() {
+        return 0;
+    }
+
+    /**
+     * @return the maximum number of rows of a VALUES clause
+     */
+    public int maxRowsPerStatement() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the maximum length of a statement, values included, used to size the statements inserting several rows
+     */
+    public long maxStatementLength() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the sql states of the transient errors, like deadlocks, on which a failed batch is executed again
+     */
+    public Set<String> retryableSQLStates() {
+        return singleton("40001");
+    }
+
+    /**
+     * @param sqlState the sql state of the error
+     * @param errorCode the vendor code of the error, null when unknown
+     * @return true when the error is the violation of a primary key or of a unique constraint
+     */
+    public boolean isDuplicateKey(final String sqlState, final Integer errorCode) {
+        return "23505".equals(sqlState);
+    }
+
+    /**
+     * @return the native bulk loader of the platform, empty when the records are bulk loaded with batched inserts
+     */
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.empty();
+    }
+
+    /**
+     * @param rewriteBatchedStatements the rewrite batched statements option of the output
+     * @return true when the driver combines the batched statements, its update counts are then not one per batched
+     * statement
+     */
+    public boolean rewritesBatchedStatements(final boolean rewriteBatchedStatements) {
+        return false;
+    }
+
     /**
      * Add platform related properties to jdbc connections
      */
@@ -47,7 +47,8 @@ public final class PlatformFactory {
         case MSSQL:
             return new MSSQLPlatform(i18n);
         case DERBY:
-            return new DerbyPlatform(i18n);
+            return new DerbyPlatform(i18n,
+                    !ofNullable(connection.getJdbcUrl()).orElse("").toLowerCase(Locale.ROOT).startsWith("jdbc:derby://"));
         default:
             throw new IllegalArgumentException(i18n.errorUnsupportedDatabase(dbType));
         }
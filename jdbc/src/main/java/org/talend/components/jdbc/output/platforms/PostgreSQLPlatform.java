@@ -12,13 +12,21 @@
  */
 package org.talend.components.jdbc.output.platforms;
 
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
+import static java.util.Locale.ROOT;
+
 /**
  * syntax detail can be found at <a href=
  * "http://www.postgresqltutorial.com/postgresql-create-table/">http://www.postgresqltutorial.com/postgresql-create-table/</a>
@@ -108,4 +116,67 @@ public class PostgreSQLPlatform extends Platform {
         }
     }
 
+    @Override
+    public boolean hasNativeUpsert() {
+        return true;
+    }
+
+    /**
+     * ON CONFLICT needs a unique index on exactly the keys
+     */
+    @Override
+    public boolean supportsNativeUpsert(final Connection connection, final String table, final List<String> keys)
+            throws SQLException {
+        final Set<String> columns = keys.stream().map(key -> key.toLowerCase(ROOT)).collect(Collectors.toSet());
+        return uniqueIndexes(connection, table).contains(columns);
+    }
+
+    @Override
+    public String upsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatable, final List<String> parameters) {
+        return insertQuery(table, columns, parameters) + " ON CONFLICT "
+                + keys.stream().map(this::identifier).collect(Collectors.joining(",", "(", ")"))
+                + (updatable.isEmpty() ? " DO NOTHING"
+                        : " DO UPDATE SET " + updatable.stream().map(this::identifier).map(c -> c + " = EXCLUDED." + c)
+                                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * https://www.postgresql.org/docs/current/protocol-message-formats.html, the parameters count is sent as an Int16
+     */
+    @Override
+    public int maxParameters() {
+        return 32767;
+    }
+
+    /**
+     * The driver rewrites the remaining single row inserts, like the upsert ones, in multi rows inserts
+     */
+    @Override
+    public void addDataSourceProperties(final HikariDataSource dataSource) {
+        super.addDataSourceProperties(dataSource);
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+    }
+
+    /**
+     * The inserts are always rewritten, see {@link #addDataSourceProperties(HikariDataSource)}
+     */
+    @Override
+    public boolean rewritesBatchedStatements(final boolean rewriteBatchedStatements) {
+        return true;
+    }
+
+    /**
+     * https://www.postgresql.org/docs/current/errcodes-appendix.html, 40P01 is deadlock_detected
+     */
+    @Override
+    public Set<String> retryableSQLStates() {
+        return new HashSet<>(asList("40001", "40P01"));
+    }
+
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        return Optional.of(new CopyBulkLoader(this));
+    }
+
 }
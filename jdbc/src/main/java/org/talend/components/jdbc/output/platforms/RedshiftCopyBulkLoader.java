@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.talend.sdk.component.api.record.Schema;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+
+/**
+ * Redshift <code>COPY</code> of a csv file staged in an object store.
+ * https://docs.aws.amazon.com/redshift/latest/dg/r_COPY.html
+ */
+class RedshiftCopyBulkLoader extends StagedCopyBulkLoader {
+
+    RedshiftCopyBulkLoader(final Platform platform, final ObjectStore store) {
+        super(platform, store);
+    }
+
+    /**
+     * The default null string of COPY
+     */
+    @Override
+    protected String nullValue() {
+        return "\\N";
+    }
+
+    @Override
+    protected String bytes(final byte[] value) {
+        return encodeHexString(value);
+    }
+
+    @Override
+    protected String bool(final boolean value) {
+        return String.valueOf(value);
+    }
+
+    @Override
+    protected String copyQuery(final String table, final List<Schema.Entry> columns, final String location) {
+        final String authorization = store.authorization();
+        return "COPY " + platform.identifier(table)
+                + columns.stream().map(c -> platform.identifier(c.getName())).collect(joining(",", "(", ")")) + " FROM '"
+                + location.replace("'", "''") + "'" + (authorization.isEmpty() ? "" : " " + authorization)
+                + " CSV TIMEFORMAT 'auto'";
+    }
+}
@@ -17,9 +17,15 @@ import org.talend.components.jdbc.configuration.DistributionStrategy;
 import org.talend.components.jdbc.service.I18nMessage;
 
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
@@ -89,6 +95,42 @@ public class RedshiftPlatform extends Platform {
 
     }
 
+    /**
+     * Redshift reports deadlocks like PostgreSQL
+     */
+    @Override
+    public Set<String> retryableSQLStates() {
+        return new HashSet<>(asList("40001", "40P01"));
+    }
+
+    /**
+     * Redshift executes batched inserts one row at a time, rows are grouped in multi rows inserts instead.
+     * https://docs.aws.amazon.com/redshift/latest/dg/c_best-practices-multi-row-inserts.html
+     */
+    @Override
+    public int maxParameters() {
+        return 32767;
+    }
+
+    /**
+     * https://docs.aws.amazon.com/redshift/latest/dg/c_redshift-sql.html
+     */
+    @Override
+    public long maxStatementLength() {
+        return 16 * 1024 * 1024;
+    }
+
+    /**
+     * The bulk loads are copied from an object store when an {@link ObjectStore} implementation is available, otherwise
+     * they are multi rows inserts.
+     */
+    @Override
+    public Optional<BulkLoader> bulkLoader() {
+        final Iterator<ObjectStore> stores = ServiceLoader.load(ObjectStore.class, RedshiftPlatform.class.getClassLoader())
+                .iterator();
+        return stores.hasNext() ? Optional.of(new RedshiftCopyBulkLoader(this, stores.next())) : Optional.empty();
+    }
+
     @Override
     protected boolean isTableExistsCreationError(final Throwable e) {
         // name space creation issue in distributed exectution is not handled by "IF NOT EXISTS"
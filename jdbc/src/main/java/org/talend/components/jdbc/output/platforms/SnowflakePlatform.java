@@ -13,6 +13,7 @@
 package org.talend.components.jdbc.output.platforms;
 
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.service.I18nMessage;
 
 import java.util.List;
@@ -65,6 +66,15 @@ public class SnowflakePlatform extends Platform {
         return sql.toString();
     }
 
+    /**
+     * Each batch is loaded as a staged file whatever the action, see
+     * {@link org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy}
+     */
+    @Override
+    public int defaultBatchSize(final OutputConfig.ActionOnData action) {
+        return DEFAULT_BULK_BATCH_SIZE;
+    }
+
     @Override
     protected boolean isTableExistsCreationError(final Throwable e) {
         return false;
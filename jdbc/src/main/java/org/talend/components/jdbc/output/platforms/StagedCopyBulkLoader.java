@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk loader uploading the records as a csv file in an object store, then copying the file in the table from the store.
+ */
+@Slf4j
+abstract class StagedCopyBulkLoader extends CsvBulkLoader {
+
+    protected final ObjectStore store;
+
+    StagedCopyBulkLoader(final Platform platform, final ObjectStore store) {
+        super(platform);
+        this.store = store;
+    }
+
+    /**
+     * @param location the location of the staged csv file, as returned by the store
+     * @return the statement copying the staged csv file in the table
+     */
+    protected abstract String copyQuery(String table, List<Schema.Entry> columns, String location);
+
+    @Override
+    protected void load(final Connection connection, final String table, final List<Schema.Entry> columns,
+            final InputStream csv, final int rows) throws SQLException {
+        final String key = table + "/" + UUID.randomUUID() + ".csv";
+        final String location;
+        try {
+            location = store.put(key, csv);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(copyQuery(table, columns, location));
+        } finally {
+            try {
+                store.delete(key);
+            } catch (final IOException e) {
+                log.warn("Can't delete the staged file " + key, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement;
+
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execute the records on several writer lanes concurrently, each lane with its own query manager and connection.
+ * The records are routed to a lane by the hash of their key values: the records of a key are executed by the same lane in
+ * their input order, and the lanes don't wait for the locks of each other rows. Only as many lanes as the pool has
+ * connections are used.
+ */
+public class ParallelQueryManager implements QueryManager {
+
+    private final List<QueryManager> lanes;
+
+    private final List<String> keys;
+
+    private transient ExecutorService executor;
+
+    public ParallelQueryManager(final List<QueryManager> lanes, final List<String> keys) {
+        this.lanes = lanes;
+        this.keys = keys;
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException, IOException {
+        final int active = Math.min(lanes.size(), dataSource.getMaxConnections());
+        final List<List<Record>> routed = route(records, active);
+        if (executor == null) {
+            final AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(active, r -> {
+                final Thread thread = new Thread(r, "jdbc-output-lane-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final List<Future<List<Reject>>> executions = new ArrayList<>(active);
+        for (int i = 0; i < active; i++) {
+            final QueryManager lane = lanes.get(i);
+            final List<Record> laneRecords = routed.get(i);
+            if (!laneRecords.isEmpty()) {
+                executions.add(executor.submit(() -> lane.execute(laneRecords, dataSource)));
+            }
+        }
+        final List<Reject> rejects = new ArrayList<>();
+        Exception error = null;
+        for (final Future<List<Reject>> execution : executions) {
+            try {
+                rejects.addAll(execution.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (final ExecutionException e) {
+                final Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause()
+                        : new IllegalStateException(e.getCause());
+                if (error == null) {
+                    error = cause;
+                } else {
+                    error.addSuppressed(cause);
+                }
+            }
+        }
+        if (error instanceof SQLException) {
+            throw (SQLException) error;
+        }
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        return rejects;
+    }
+
+    @Override
+    public List<Reject> waitForCompletion() throws SQLException {
+        final List<Reject> rejects = new ArrayList<>();
+        for (final QueryManager lane : lanes) {
+            rejects.addAll(lane.waitForCompletion());
+        }
+        return rejects;
+    }
+
+    @Override
+    public void close() {
+        lanes.forEach(QueryManager::close);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private List<List<Record>> route(final List<Record> records, final int active) {
+        final List<List<Record>> routed = new ArrayList<>(active);
+        for (int i = 0; i < active; i++) {
+            routed.add(new ArrayList<>(records.size() / active + 1));
+        }
+        final Object[] values = new Object[keys.size()];
+        for (final Record record : records) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = record.get(Object.class, keys.get(i));
+            }
+            routed.get(Math.floorMod(Arrays.deepHashCode(values), active)).add(record);
+        }
+        return routed;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Bind the values of records to the parameters of a statement. The entry and the converter of each parameter are resolved
+ * once, binding a record only walks two arrays.
+ */
+public class ParameterBinder {
+
+    private final Schema.Entry[] entries;
+
+    private final RecordToSQLTypeConverter[] converters;
+
+    /**
+     * @param entries the entries bound to the parameters, in the parameters order
+     */
+    public ParameterBinder(final List<Schema.Entry> entries) {
+        this.entries = entries.toArray(new Schema.Entry[0]);
+        this.converters = new RecordToSQLTypeConverter[this.entries.length];
+        for (int i = 0; i < this.entries.length; i++) {
+            converters[i] = RecordToSQLTypeConverter.valueOf(this.entries[i].getType().name());
+        }
+    }
+
+    /**
+     * @param params the entries bound to the parameters, by parameter index starting at 1
+     */
+    public static ParameterBinder of(final Map<Integer, Schema.Entry> params) {
+        final Schema.Entry[] entries = new Schema.Entry[params.size()];
+        for (final Map.Entry<Integer, Schema.Entry> param : params.entrySet()) {
+            if (param.getKey() < 1 || param.getKey() > entries.length) {
+                throw new IllegalArgumentException("parameter indexes are not contiguous: " + params.keySet());
+            }
+            entries[param.getKey() - 1] = param.getValue();
+        }
+        return new ParameterBinder(asList(entries));
+    }
+
+    /**
+     * @return the number of parameters bound for each record
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Bind the values of the record to the parameters following the offset
+     */
+    public void bind(final PreparedStatement statement, final int offset, final Record record) throws SQLException {
+        for (int i = 0; i < entries.length; i++) {
+            converters[i].setValue(statement, offset + i + 1, entries[i], record);
+        }
+    }
+}
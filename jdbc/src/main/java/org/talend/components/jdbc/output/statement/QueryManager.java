@@ -9,7 +9,25 @@ import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.List;
 
+import static java.util.Collections.emptyList;
+
 public interface QueryManager extends Serializable {
 
     List<Reject> execute(List<Record> records, JdbcService.JdbcDatasource dataSource) throws SQLException, IOException;
+
+    /**
+     * Wait for the records which are still executed in background by previous calls to execute.
+     *
+     * @return the rejects of those records
+     */
+    default List<Reject> waitForCompletion() throws SQLException {
+        return emptyList();
+    }
+
+    /**
+     * Release the resources used to execute the records in background
+     */
+    default void close() {
+        // no-op by default
+    }
 }
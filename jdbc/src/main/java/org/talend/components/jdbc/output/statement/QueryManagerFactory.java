@@ -15,10 +15,12 @@ package org.talend.components.jdbc.output.statement;
 import lombok.Data;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.BulkLoad;
 import org.talend.components.jdbc.output.statement.operations.Delete;
 import org.talend.components.jdbc.output.statement.operations.Insert;
 import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
 import org.talend.components.jdbc.output.statement.operations.Update;
+import org.talend.components.jdbc.output.statement.operations.Upsert;
 import org.talend.components.jdbc.output.statement.operations.UpsertDefault;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeDelete;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeInsert;
@@ -26,7 +28,10 @@ import org.talend.components.jdbc.output.statement.operations.snowflake.Snowflak
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeUpsert;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.util.stream.IntStream;
+
 import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toList;
 import static org.talend.components.jdbc.output.platforms.SnowflakePlatform.SNOWFLAKE;
 
 @Data
@@ -35,7 +40,25 @@ public final class QueryManagerFactory {
     private QueryManagerFactory() {
     }
 
-    public static QueryManagerImpl getQueryManager(final Platform platform, final I18nMessage i18n,
+    /**
+     * @return the query manager of the action, updates and deletes are executed on several writer lanes when configured
+     */
+    public static QueryManager getQueryManager(final Platform platform, final I18nMessage i18n,
+            final OutputConfig configuration) {
+        final String db = configuration.getDataset().getConnection().getDbType().toLowerCase(ROOT);
+        final OutputConfig.ActionOnData action = configuration.getActionOnData();
+        if (configuration.getWriterLanes() > 1 && !SNOWFLAKE.equals(db)
+                && (action == OutputConfig.ActionOnData.UPDATE || action == OutputConfig.ActionOnData.DELETE)) {
+            return new ParallelQueryManager(IntStream.range(0, configuration.getWriterLanes()).mapToObj(i -> {
+                final QueryManagerImpl lane = newQueryManager(platform, i18n, configuration);
+                lane.setLanes(configuration.getWriterLanes());
+                return lane;
+            }).collect(toList()), configuration.getKeys());
+        }
+        return newQueryManager(platform, i18n, configuration);
+    }
+
+    private static QueryManagerImpl newQueryManager(final Platform platform, final I18nMessage i18n,
             final OutputConfig configuration) {
         final String db = configuration.getDataset().getConnection().getDbType().toLowerCase(ROOT);
         switch (db) {
@@ -49,6 +72,9 @@ public final class QueryManagerFactory {
                 return new SnowflakeDelete(platform, configuration, i18n);
             case UPSERT:
                 return new SnowflakeUpsert(platform, configuration, i18n);
+            case BULK_LOAD:
+                // snowflake inserts are already loaded with PUT and COPY
+                return new SnowflakeInsert(platform, configuration, i18n);
             default:
                 throw new IllegalStateException(i18n.errorUnsupportedDatabaseAction());
             }
@@ -61,7 +87,10 @@ public final class QueryManagerFactory {
             case DELETE:
                 return new Delete(platform, configuration, i18n);
             case UPSERT:
-                return new UpsertDefault(platform, configuration, i18n);
+                return platform.hasNativeUpsert() ? new Upsert(platform, configuration, i18n)
+                        : new UpsertDefault(platform, configuration, i18n);
+            case BULK_LOAD:
+                return new BulkLoad(platform, configuration, i18n);
             default:
                 throw new IllegalStateException(i18n.errorUnsupportedDatabaseAction());
             }
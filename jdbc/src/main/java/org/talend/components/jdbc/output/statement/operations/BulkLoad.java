@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.BulkLoader;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Load the records with the native bulk loader of the platform, or with batched inserts when it has none.
+ */
+@Slf4j
+public class BulkLoad extends Insert {
+
+    public BulkLoad(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        final Optional<BulkLoader> loader = getPlatform().bulkLoader();
+        if (!loader.isPresent()) {
+            return super.execute(records, dataSource);
+        }
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+
+        buildQuery(records);
+        final List<Reject> rejects = new ArrayList<>();
+        final List<Record> valid = new ArrayList<>(records.size());
+        for (final Record record : records) {
+            if (!validateQueryParam(record)) {
+                rejects.add(new Reject("missing required query param in this record", record));
+                continue;
+            }
+            valid.add(record);
+        }
+        final List<Schema.Entry> columns = getQueryParams().entrySet().stream().sorted(comparing(Map.Entry::getKey))
+                .map(Map.Entry::getValue).collect(toList());
+        try (final Connection connection = dataSource.getConnection()) {
+            try {
+                loader.get().load(connection, getConfiguration().getDataset().getTableName(), columns, valid);
+                connection.commit();
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return rejects;
+    }
+}
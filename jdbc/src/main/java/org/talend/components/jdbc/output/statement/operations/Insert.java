@@ -31,42 +31,74 @@ import static java.util.stream.Collectors.*;
 @Slf4j
 public class Insert extends QueryManagerImpl {
 
-    private Map<Integer, Schema.Entry> namedParams;
-
-    private final Map<String, String> queries = new HashMap<>();
-
     public Insert(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
 
     @Override
-    public String buildQuery(final List<Record> records) {
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
-        return queries.computeIfAbsent(entries.stream().map(Schema.Entry::getName).collect(joining("::")), key -> {
-            final AtomicInteger index = new AtomicInteger(0);
-            namedParams = new HashMap<>();
-            entries.forEach(name -> namedParams.put(index.incrementAndGet(), name));
-            final List<Map.Entry<Integer, Schema.Entry>> params = namedParams.entrySet().stream()
-                    .sorted(comparing(Map.Entry::getKey)).collect(toList());
-            final StringBuilder query = new StringBuilder("INSERT INTO ")
-                    .append(getPlatform().identifier(getConfiguration().getDataset().getTableName()));
-            query.append(params.stream().map(e -> e.getValue().getName()).map(name -> getPlatform().identifier(name))
-                    .collect(joining(",", "(", ")")));
-            query.append(" VALUES");
-            query.append(params.stream().map(e -> "?").collect((joining(",", "(", ")"))));
-            return query.toString();
-        });
+    protected QueryPlan compile(final List<Schema.Entry> entries) {
+        final AtomicInteger index = new AtomicInteger(0);
+        final Map<Integer, Schema.Entry> namedParams = new HashMap<>();
+        entries.forEach(name -> namedParams.put(index.incrementAndGet(), name));
+        final List<Map.Entry<Integer, Schema.Entry>> params = namedParams.entrySet().stream()
+                .sorted(comparing(Map.Entry::getKey)).collect(toList());
+        final StringBuilder query = new StringBuilder("INSERT INTO ")
+                .append(getPlatform().identifier(getConfiguration().getDataset().getTableName()));
+        query.append(params.stream().map(e -> e.getValue().getName()).map(name -> getPlatform().identifier(name))
+                .collect(joining(",", "(", ")")));
+        query.append(" VALUES");
+        query.append(params.stream().map(e -> "?").collect((joining(",", "(", ")"))));
+        return new QueryPlan(query.toString(), namedParams);
     }
 
     @Override
-    public boolean validateQueryParam(final Record record) {
-        return namedParams.values().stream().filter(e -> !e.isNullable()).map(e -> valueOf(record, e))
-                .allMatch(Optional::isPresent);
+    protected String buildQuery(final String query, final int rows) {
+        final String row = getQueryParams().values().stream().map(e -> "?").collect(joining(",", ",(", ")"));
+        final StringBuilder values = new StringBuilder(query.length() + row.length() * (rows - 1)).append(query);
+        for (int i = 1; i < rows; i++) {
+            values.append(row);
+        }
+        return values.toString();
     }
 
+    /**
+     * Bind as many rows per statement as allowed by the platform parameters and statement length limits
+     */
     @Override
-    public Map<Integer, Schema.Entry> getQueryParams() {
-        return namedParams;
+    protected int rowsPerStatement(final List<Record> records) {
+        final int maxParameters = getPlatform().maxParameters();
+        final int columns = getQueryParams().size();
+        if (maxParameters <= 0 || columns == 0) {
+            return 1;
+        }
+        final long rowLength = records.stream().mapToLong(this::estimateLength).max().orElse(1);
+        return (int) Math.max(1, Math.min(Math.min(maxParameters / columns, getPlatform().maxRowsPerStatement()),
+                getPlatform().maxStatementLength() / rowLength));
+    }
+
+    /**
+     * @return an estimation of the length of the values of a record once sent in a statement
+     */
+    private long estimateLength(final Record record) {
+        long length = 3;
+        for (final Schema.Entry entry : getQueryParams().values()) {
+            switch (entry.getType()) {
+            case STRING:
+                length += record.getOptionalString(entry.getName()).map(String::length).orElse(4) + 3;
+                break;
+            case BYTES:
+                length += record.getOptionalBytes(entry.getName()).map(b -> b.length * 2).orElse(4) + 5;
+                break;
+            default:
+                length += 32;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean validateQueryParam(final Record record) {
+        return getQueryParams().values().stream().filter(e -> !e.isNullable()).map(e -> valueOf(record, e))
+                .allMatch(Optional::isPresent);
     }
 }
\ No newline at end of file
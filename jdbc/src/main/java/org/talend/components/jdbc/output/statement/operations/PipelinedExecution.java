@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.output.Reject;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Second stage of a two stages output pipeline. The caller thread binds the next batch while a single worker executes the
+ * previous ones in order. At most <code>depth</code> batches are waiting for or in execution, once reached the caller waits
+ * for the oldest one before binding a new batch.
+ * A batch failing on a transient error is retried by the worker after its retry delay, before the next batches: the
+ * batches are committed in their submission order, so a batch never overwrites the rows of a later one.
+ */
+@Slf4j
+class PipelinedExecution {
+
+    /**
+     * Time in seconds given to the batch in execution to stop when the pipeline is closed
+     */
+    private static final long CLOSE_TIMEOUT = 10;
+
+    private final int depth;
+
+    private final ExecutorService executor;
+
+    private final Deque<Submission> pending = new ArrayDeque<>();
+
+    PipelinedExecution(final int depth) {
+        this.depth = depth;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "jdbc-output-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wait for a free slot in the pipeline.
+     *
+     * @return the rejects of the batches completed so far
+     */
+    List<Reject> reserve() throws SQLException {
+        final List<Reject> rejects = new ArrayList<>();
+        while (!pending.isEmpty() && (pending.size() >= depth || pending.peek().future.isDone())) {
+            rejects.addAll(await(pending.poll().future));
+        }
+        return rejects;
+    }
+
+    void submit(final Callable<List<Reject>> execution) {
+        submit(execution, () -> {
+        });
+    }
+
+    /**
+     * @param execution the execution of a batch, retrying it on transient errors
+     * @param resource closed once the batch is executed
+     */
+    void submit(final Callable<List<Reject>> execution, final AutoCloseable resource) {
+        final Submission submission = new Submission(resource);
+        try {
+            submission.future = executor.submit(() -> {
+                final List<Reject> rejects;
+                try {
+                    rejects = execution.call();
+                } catch (final Exception e) {
+                    try {
+                        submission.release();
+                    } catch (final Exception closing) {
+                        e.addSuppressed(closing);
+                    }
+                    throw e;
+                }
+                submission.release();
+                return rejects;
+            });
+        } catch (final RejectedExecutionException e) {
+            submission.releaseQuietly();
+            throw e;
+        }
+        pending.add(submission);
+    }
+
+    /**
+     * Wait for all the submitted batches.
+     *
+     * @return their rejects
+     */
+    List<Reject> drain() throws SQLException {
+        final List<Reject> rejects = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            rejects.addAll(await(pending.poll().future));
+        }
+        return rejects;
+    }
+
+    /**
+     * Cancel the submitted batches. The resources of the batches which were not executed are released here, once the
+     * batch in execution is stopped.
+     */
+    void close() {
+        pending.forEach(submission -> submission.future.cancel(true));
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("The batch in execution didn't stop in " + CLOSE_TIMEOUT + "s, releasing its resources anyway");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending.forEach(Submission::releaseQuietly);
+        pending.clear();
+    }
+
+    private List<Reject> await(final Future<List<Reject>> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * A submitted batch and the resource it holds until it is executed or cancelled
+     */
+    private static class Submission {
+
+        private final AutoCloseable resource;
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Future<List<Reject>> future;
+
+        private Submission(final AutoCloseable resource) {
+            this.resource = resource;
+        }
+
+        private void release() throws Exception {
+            if (released.compareAndSet(false, true)) {
+                resource.close();
+            }
+        }
+
+        private void releaseQuietly() {
+            try {
+                release();
+            } catch (final Exception e) {
+                log.warn("can't release the resources of a cancelled batch", e);
+            }
+        }
+    }
+}
@@ -12,13 +12,16 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.Reject;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.statement.QueryManager;
-import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
+import org.talend.components.jdbc.output.statement.ParameterBinder;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
@@ -28,9 +31,13 @@ import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -51,111 +58,416 @@ public abstract class QueryManagerImpl implements QueryManager {
 
     private final I18nMessage i18n;
 
-    private final Integer maxRetry = 10;
+    /**
+     * Maximum number of cached query plans, one per distinct set of record schemas
+     */
+    private static final int MAX_PLANS = 16;
+
+    /**
+     * Number of query managers executing concurrently on the same pool, they share its connections
+     */
+    private int lanes = 1;
 
-    private Integer retryCount = 0;
+    private transient PipelinedExecution pipeline;
 
-    abstract protected String buildQuery(List<Record> records);
+    private transient Map<List<Schema>, QueryPlan> plans;
 
-    abstract protected Map<Integer, Schema.Entry> getQueryParams();
+    private transient QueryPlan plan;
+
+    /**
+     * @param entries the distinct entries of the records of a group
+     * @return the query of the group and the entries bound to its parameters
+     */
+    abstract protected QueryPlan compile(List<Schema.Entry> entries);
 
     abstract protected boolean validateQueryParam(Record record);
 
+    /**
+     * @return the number of records bound in each statement, one unless the query can be repeated for several rows
+     */
+    protected int rowsPerStatement(final List<Record> records) {
+        return 1;
+    }
+
+    /**
+     * @param query the query of one record, see {@link #buildQuery(List)}
+     * @return the query binding the parameters of the given number of records
+     */
+    protected String buildQuery(final String query, final int rows) {
+        return query;
+    }
+
+    /**
+     * Select the query plan of the group. Plans are cached by the schemas of the records, consecutive groups of the same
+     * schemas reuse the same query and parameters.
+     *
+     * @return the query of the group
+     */
+    public String buildQuery(final List<Record> records) {
+        final List<Schema> schemas = new ArrayList<>(1);
+        Schema previous = null;
+        for (final Record record : records) {
+            final Schema schema = record.getSchema();
+            if (schema != previous && !schemas.contains(schema)) {
+                schemas.add(schema);
+            }
+            previous = schema;
+        }
+        if (plan != null && plan.getSchemas().equals(schemas)) {
+            return plan.getQuery();
+        }
+        if (plans == null) {
+            plans = new LinkedHashMap<List<Schema>, QueryPlan>(MAX_PLANS, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<List<Schema>, QueryPlan> eldest) {
+                    return size() > MAX_PLANS;
+                }
+            };
+        }
+        plan = plans.computeIfAbsent(schemas, key -> {
+            final QueryPlan compiled = compile(
+                    key.stream().flatMap(schema -> schema.getEntries().stream()).distinct().collect(toList()));
+            compiled.schemas = key;
+            return compiled;
+        });
+        return plan.getQuery();
+    }
+
+    /**
+     * @return the entries bound to the parameters of the query of the current group, by parameter index
+     */
+    public Map<Integer, Schema.Entry> getQueryParams() {
+        return plan == null ? null : plan.getParams();
+    }
+
     @Override
     public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
         if (records.isEmpty()) {
             return emptyList();
         }
-        try (final Connection connection = dataSource.getConnection()) {
-            return processRecords(records, connection, buildQuery(records));
+        final String query = buildQuery(records);
+        final int depth = pipelineDepth(dataSource.getMaxConnections());
+        if (depth <= 0) {
+            try (final Connection connection = dataSource.getConnection()) {
+                return executeBatch(bind(records, connection, query));
+            }
+        }
+
+        if (pipeline == null) {
+            pipeline = new PipelinedExecution(depth);
+        }
+        final List<Reject> rejects = pipeline.reserve();
+        final Connection connection = dataSource.getConnection();
+        final BoundBatch batch;
+        try {
+            batch = bind(records, connection, query);
+        } catch (final SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
         }
+        pipeline.submit(() -> executeBatch(batch), connection);
+        return rejects;
     }
 
-    private List<Reject> processRecords(final List<Record> records, final Connection connection, final String query)
+    /**
+     * @return the number of batches executed in background, the pool keeps one connection for the batch being bound
+     */
+    private int pipelineDepth(final int maxConnections) {
+        final int connections = maxConnections / Math.min(Math.max(1, lanes), maxConnections);
+        return Math.min(configuration.getPipelineDepth(), connections - 1);
+    }
+
+    @Override
+    public List<Reject> waitForCompletion() throws SQLException {
+        return pipeline == null ? emptyList() : pipeline.drain();
+    }
+
+    @Override
+    public void close() {
+        if (pipeline != null) {
+            pipeline.close();
+            pipeline = null;
+        }
+    }
+
+    /**
+     * First stage of the execution, cpu bound: validate the records and bind them in a new prepared statement
+     */
+    private BoundBatch bind(final List<Record> records, final Connection connection, final String query)
             throws SQLException {
-        List<Reject> rejects;
-        do {
-            rejects = new ArrayList<>();
-            try (final PreparedStatement statement = connection.prepareStatement(query)) {
-                final Map<Integer, Integer> batchOrder = new HashMap<>();
-                int recordIndex = -1;
-                int batchNumber = -1;
-                for (final Record record : records) {
-                    recordIndex++;
-                    statement.clearParameters();
-                    if (!validateQueryParam(record)) {
-                        rejects.add(new Reject("missing required query param in this record", record));
-                        continue;
-                    }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
-                    }
-                    statement.addBatch();
-                    batchNumber++;
-                    batchOrder.put(batchNumber, recordIndex);
+        final List<Reject> rejects = new ArrayList<>();
+        final List<Record> bound = new ArrayList<>(records.size());
+        final ParameterBinder binder = plan.getBinder();
+        for (final Record record : records) {
+            if (!validateQueryParam(record)) {
+                rejects.add(new Reject("missing required query param in this record", record));
+                continue;
+            }
+            bound.add(record);
+        }
+        final int rows = bound.isEmpty() ? 1 : Math.max(1, Math.min(rowsPerStatement(bound), bound.size()));
+        return new BoundBatch(connection, query, binder, bound, rejects, new RetryPolicy(platform.retryableSQLStates()), rows,
+                prepare(connection, query, binder, bound, rows));
+    }
+
+    /**
+     * Bind the records by groups of rows in a first statement, the remaining ones are bound together in a second one.
+     */
+    private List<PreparedStatement> prepare(final Connection connection, final String query,
+            final ParameterBinder binder, final List<Record> records, final int rows) throws SQLException {
+        final List<PreparedStatement> statements = new ArrayList<>(2);
+        final int grouped = records.size() / rows * rows;
+        try {
+            if (grouped > 0) {
+                statements.add(prepareStatement(connection, buildQuery(query, rows), binder, records.subList(0, grouped), rows));
+            }
+            if (grouped < records.size()) {
+                final int remaining = records.size() - grouped;
+                statements.add(prepareStatement(connection, buildQuery(query, remaining), binder,
+                        records.subList(grouped, records.size()), remaining));
+            }
+            return statements;
+        } catch (final SQLException | RuntimeException e) {
+            close(statements);
+            throw e;
+        }
+    }
+
+    private PreparedStatement prepareStatement(final Connection connection, final String query,
+            final ParameterBinder binder, final List<Record> records, final int rows) throws SQLException {
+        final PreparedStatement statement = connection.prepareStatement(query);
+        try {
+            for (int i = 0; i < records.size(); i += rows) {
+                statement.clearParameters();
+                for (int row = 0; row < rows; row++) {
+                    binder.bind(statement, row * binder.size(), records.get(i + row));
+                }
+                statement.addBatch();
+            }
+            return statement;
+        } catch (final SQLException | RuntimeException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    private static void close(final List<PreparedStatement> statements) throws SQLException {
+        SQLException error = null;
+        for (final PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (final SQLException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
                 }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
 
+    /**
+     * Second stage of the execution, network bound: execute and commit the bound batch.
+     * When a statement of several rows fails, the records are executed again one per statement to find the rejected ones.
+     * The transient errors are retried after a delay, by the pipeline worker when the batch is pipelined.
+     */
+    private List<Reject> executeBatch(final BoundBatch batch) throws SQLException {
+        final Connection connection = batch.getConnection();
+        List<PreparedStatement> statements = batch.getStatements();
+        try {
+            do {
                 try {
-                    statement.executeBatch();
+                    for (final PreparedStatement statement : statements) {
+                        statement.executeBatch();
+                    }
                     connection.commit();
                     break;
                 } catch (final SQLException e) {
                     connection.rollback();
-                    if (!retry(e) || retryCount > maxRetry) {
-                        rejects.addAll(handleRejects(records, batchOrder, e));
+                    final boolean retry = batch.getRetry().canRetry(e);
+                    if (!retry && batch.getRows() > 1) {
+                        log.debug("Statement of " + batch.getRows() + " rows failed, executing its records one by one", e);
+                        batch.setRows(1);
+                    } else if (!retry) {
+                        batch.getRejects().addAll(bisect(batch, e));
                         break;
-                    }
-                    retryCount++;
-                    log.warn("Deadlock detected. retrying for the " + retryCount + " time", e);
-                    try {
-                        Thread.sleep((long) Math.exp(retryCount) * 2000);
-                    } catch (InterruptedException e1) {
-                        Thread.currentThread().interrupt();
+                    } else {
+                        waitBeforeRetry(batch.getRetry(), e);
                     }
                 }
-            }
-        } while (true);
+                close(statements);
+                statements = prepare(connection, batch.getQuery(), batch.getBinder(), batch.getRecords(), batch.getRows());
+            } while (true);
+        } finally {
+            close(statements);
+        }
 
-        return rejects;
+        return batch.getRejects();
     }
 
-    /**
-     * A default retry strategy. We try to detect deadl lock by testing the sql state code.
-     * 40001 is the state code used by almost all database to rise a dead lock issue
-     */
-    private boolean retry(final SQLException e) {
-        return "40001".equals(ofNullable(e.getNextException()).orElse(e).getSQLState());
+    private static long nextDelay(final RetryPolicy retry, final SQLException e) {
+        final long delay = retry.nextDelay();
+        log.warn("Transient error " + ofNullable(e.getNextException()).orElse(e).getSQLState() + ", retrying for the "
+                + retry.getRetries() + " time in " + delay + "ms", e);
+        return delay;
     }
 
-    private List<Reject> handleRejects(final List<Record> records, Map<Integer, Integer> batchOrder, final SQLException e)
-            throws SQLException {
-        if (!(e instanceof BatchUpdateException)) {
+    private static void waitBeforeRetry(final RetryPolicy retry, final SQLException e) {
+        try {
+            Thread.sleep(nextDelay(retry, e));
+        } catch (InterruptedException e1) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Isolate the failing records of a batch executed one record per statement. The failing records are split in halves
+     * executed again until each failing record is alone, so the other records are committed in a few more round trips
+     * instead of being rejected with the failing one. The update counts of the first failure, when the driver reports
+     * them and did not rewrite the batch, spare the split of the records already known to fail or to succeed.
+     *
+     * @param batch the failed batch, its records are bound in the batch order
+     * @param e the error of the batch
+     * @return the rejected records
+     */
+    private List<Reject> bisect(final BoundBatch batch, final SQLException e) throws SQLException {
+        if (isConnectionError(e)) {
             throw e;
         }
-        final List<Reject> discards = new ArrayList<>();
-        final int[] result = ((BatchUpdateException) e).getUpdateCounts();
-        SQLException error = e;
-        if (result.length == records.size()) {
+        final Connection connection = batch.getConnection();
+        final List<Record> records = batch.getRecords();
+        final List<Reject> rejects = new ArrayList<>();
+        final Deque<List<Record>> pending = new ArrayDeque<>();
+        // the update counts of a rewritten batch are the ones of the combined statements, not of the records
+        final int[] result = e instanceof BatchUpdateException
+                && !platform.rewritesBatchedStatements(configuration.isRewriteBatchedStatements())
+                        ? ((BatchUpdateException) e).getUpdateCounts()
+                        : null;
+        if (result != null && result.length == records.size()) {
+            final List<Record> succeeded = new ArrayList<>(records.size());
+            SQLException error = e;
             for (int i = 0; i < result.length; i++) {
                 if (result[i] == Statement.EXECUTE_FAILED) {
                     error = ofNullable(error.getNextException()).orElse(error);
-                    discards.add(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(),
-                            records.get(batchOrder.get(i))));
+                    rejects.add(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(), records.get(i)));
+                } else {
+                    succeeded.add(records.get(i));
+                }
+            }
+            if (!succeeded.isEmpty()) {
+                pending.push(succeeded);
+            }
+        } else if (result != null && result.length < records.size()) {
+            final int failurePoint = result.length;
+            final SQLException error = ofNullable(e.getNextException()).orElse(e);
+            rejects.add(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(), records.get(failurePoint)));
+            if (failurePoint + 1 < records.size()) {
+                pending.push(records.subList(failurePoint + 1, records.size()));
+            }
+            if (failurePoint > 0) {
+                pending.push(records.subList(0, failurePoint));
+            }
+        } else {
+            split(records, e, pending, rejects);
+        }
+
+        while (!pending.isEmpty()) {
+            final List<Record> sublist = pending.pop();
+            final List<PreparedStatement> statements = prepare(connection, batch.getQuery(), batch.getBinder(), sublist, 1);
+            try {
+                for (final PreparedStatement statement : statements) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+            } catch (final SQLException failure) {
+                connection.rollback();
+                if (isConnectionError(failure)) {
+                    throw failure;
                 }
+                if (batch.getRetry().canRetry(failure)) {
+                    waitBeforeRetry(batch.getRetry(), failure);
+                    pending.push(sublist);
+                } else {
+                    split(sublist, failure, pending, rejects);
+                }
+            } finally {
+                close(statements);
             }
+        }
+
+        return rejects;
+    }
+
+    /**
+     * Reject a failing record, or queue the halves of failing records to execute them again.
+     */
+    private static void split(final List<Record> records, final SQLException e, final Deque<List<Record>> pending,
+            final List<Reject> rejects) {
+        if (records.size() == 1) {
+            final SQLException error = ofNullable(e.getNextException()).orElse(e);
+            rejects.add(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(), records.get(0)));
         } else {
-            int failurePoint = result.length;
-            error = ofNullable(error.getNextException()).orElse(error);
-            discards.add(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(),
-                    records.get(batchOrder.get(failurePoint))));
-            // todo we may retry for this sub list
-            discards.addAll(records.subList(batchOrder.get(failurePoint) + 1, records.size()).stream()
-                    .map(r -> new Reject("rejected due to error in previous elements error in this transaction", r))
-                    .collect(toList()));
+            pending.push(records.subList(records.size() / 2, records.size()));
+            pending.push(records.subList(0, records.size() / 2));
         }
+    }
+
+    /**
+     * @return true when the error comes from the connection, executing the records again would fail the same way
+     */
+    private static boolean isConnectionError(final SQLException e) {
+        return e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException
+                || ofNullable(e.getSQLState()).map(state -> state.startsWith("08")).orElse(false);
+    }
+
+    /**
+     * A batch of records bound in its prepared statement, waiting for its execution
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class BoundBatch {
+
+        private final Connection connection;
 
-        return discards;
+        private final String query;
+
+        private final ParameterBinder binder;
+
+        private final List<Record> records;
+
+        private final List<Reject> rejects;
+
+        private final RetryPolicy retry;
+
+        @Setter
+        private int rows;
+
+        private final List<PreparedStatement> statements;
+    }
+
+    /**
+     * A query and the binder of the record entries to its parameters, compiled once for the schemas of the records
+     */
+    @Getter
+    public static class QueryPlan {
+
+        private final String query;
+
+        private final Map<Integer, Schema.Entry> params;
+
+        private final ParameterBinder binder;
+
+        private List<Schema> schemas;
+
+        public QueryPlan(final String query, final Map<Integer, Schema.Entry> params) {
+            this.query = query;
+            this.params = params;
+            this.binder = ParameterBinder.of(params);
+        }
     }
 
     public String namespace(final Connection connection) throws SQLException {
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Check that records hold the keys of a query. The checks are compiled once per schema in the names of the entries
+ * which need a value, checking a record is a few null checks.
+ */
+class RecordValidator implements Serializable {
+
+    private static final int MAX_SCHEMAS = 16;
+
+    /**
+     * Compiled checks of a schema which misses some keys
+     */
+    private static final String[] MISSING_KEYS = new String[0];
+
+    private final List<String> keys;
+
+    private final boolean allRequired;
+
+    private transient Map<Schema, String[]> checks;
+
+    private transient Schema lastSchema;
+
+    private transient String[] lastChecks;
+
+    /**
+     * @param keys the entries every record needs
+     * @param allRequired true to check the values of all the not nullable entries, false to check only the keys ones
+     */
+    RecordValidator(final List<String> keys, final boolean allRequired) {
+        this.keys = keys;
+        this.allRequired = allRequired;
+    }
+
+    boolean validate(final Record record) {
+        final Schema schema = record.getSchema();
+        if (schema != lastSchema) {
+            if (checks == null || checks.size() >= MAX_SCHEMAS) {
+                checks = new HashMap<>();
+            }
+            lastChecks = checks.computeIfAbsent(schema, this::compile);
+            lastSchema = schema;
+        }
+        if (lastChecks == MISSING_KEYS) {
+            return false;
+        }
+        for (final String name : lastChecks) {
+            if (record.get(Object.class, name) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String[] compile(final Schema schema) {
+        final List<Schema.Entry> entries = schema.getEntries();
+        if (!keys.stream().allMatch(key -> entries.stream().anyMatch(entry -> entry.getName().equals(key)))) {
+            return MISSING_KEYS;
+        }
+        return entries.stream().filter(entry -> !entry.isNullable())
+                .filter(entry -> allRequired || keys.contains(entry.getName())).map(Schema.Entry::getName)
+                .toArray(String[]::new);
+    }
+}
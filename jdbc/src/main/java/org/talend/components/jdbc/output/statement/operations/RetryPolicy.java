@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Retry policy of a batch on transient errors, like deadlocks. The delay before each retry grows exponentially up to a
+ * cap, and is randomized in <code>[0, delay]</code> so the writers which deadlocked together don't retry together.
+ */
+class RetryPolicy {
+
+    static final int MAX_RETRIES = 10;
+
+    static final long BASE_DELAY = 100;
+
+    static final long MAX_DELAY = 30_000;
+
+    private final Set<String> retryableStates;
+
+    private int retries;
+
+    /**
+     * @param retryableStates the sql states of the errors to retry on
+     */
+    RetryPolicy(final Set<String> retryableStates) {
+        this.retryableStates = retryableStates;
+    }
+
+    /**
+     * @return true when the error is transient and the retries are not exhausted
+     */
+    boolean canRetry(final SQLException e) {
+        return retries < MAX_RETRIES && (retryableStates.contains(e.getSQLState())
+                || ofNullable(e.getNextException()).map(SQLException::getSQLState).filter(retryableStates::contains).isPresent());
+    }
+
+    /**
+     * Count a new retry.
+     *
+     * @return the delay in milliseconds to wait before it
+     */
+    long nextDelay() {
+        retries++;
+        final long delay = Math.min(MAX_DELAY, BASE_DELAY << Math.min(retries, 20));
+        return ThreadLocalRandom.current().nextLong(delay + 1);
+    }
+
+    int getRetries() {
+        return retries;
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
@@ -22,17 +23,13 @@ import org.talend.sdk.component.api.record.Schema;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Getter
@@ -40,9 +37,10 @@ public class Update extends QueryManagerImpl {
 
     private final List<String> keys;
 
-    private final List<String> ignoreColumns;
+    @Getter(AccessLevel.NONE)
+    private final RecordValidator validator;
 
-    private Map<Integer, Schema.Entry> queryParams;
+    private final List<String> ignoreColumns;
 
     public Update(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
@@ -50,28 +48,19 @@ public class Update extends QueryManagerImpl {
         if (this.keys.isEmpty()) {
             throw new IllegalArgumentException(i18n.errorNoKeyForUpdateQuery());
         }
+        this.validator = new RecordValidator(keys, false);
         this.ignoreColumns = new ArrayList<>(ofNullable(configuration.getIgnoreUpdate()).orElse(emptyList()));
     }
 
     @Override
     public boolean validateQueryParam(final Record record) {
-        final Set<Schema.Entry> entries = new HashSet<>(record.getSchema().getEntries());
-        return keys.stream().allMatch(k -> entries.stream().anyMatch(entry -> entry.getName().equals(k)))
-                && entries.stream().filter(entry -> keys.contains(entry.getName())).filter(entry -> !entry.isNullable())
-                        .map(entry -> valueOf(record, entry)).allMatch(Optional::isPresent);
-    }
-
-    @Override
-    public Map<Integer, Schema.Entry> getQueryParams() {
-        return queryParams;
+        return validator.validate(record);
     }
 
     @Override
-    public String buildQuery(final List<Record> records) {
-        this.queryParams = new HashMap<>();
+    protected QueryPlan compile(final List<Schema.Entry> entries) {
+        final Map<Integer, Schema.Entry> queryParams = new HashMap<>();
         final AtomicInteger index = new AtomicInteger(0);
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
         final String query = "UPDATE " + getPlatform().identifier(getConfiguration().getDataset().getTableName()) + " SET "
                 + entries.stream().filter(e -> !ignoreColumns.contains(e.getName()) && !keys.contains(e.getName()))
                         .peek(e -> queryParams.put(index.incrementAndGet(), e)).map(c -> getPlatform().identifier(c.getName()))
@@ -82,6 +71,6 @@ public class Update extends QueryManagerImpl {
                 .map(key -> entries.stream().filter(e -> key.equals(e.getName())).findFirst()
                         .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key))))
                 .forEach(entry -> queryParams.put(index.incrementAndGet(), entry));
-        return query;
+        return new QueryPlan(query, queryParams);
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Upsert using the native statement of the platform, each record is inserted or updated in a single round trip. When the
+ * native statement doesn't match the rows on the keys, like without unique index on them, the keys are looked up
+ * instead, see {@link UpsertDefault}.
+ */
+@Slf4j
+@Getter
+public class Upsert extends QueryManagerImpl {
+
+    private final List<String> keys;
+
+    @Getter(AccessLevel.NONE)
+    private final RecordValidator validator;
+
+    private final List<String> ignoreColumns;
+
+    @Getter(AccessLevel.NONE)
+    private transient Boolean nativeUpsert;
+
+    @Getter(AccessLevel.NONE)
+    private transient UpsertDefault fallback;
+
+    public Upsert(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+        this.keys = new ArrayList<>(ofNullable(configuration.getKeys()).orElse(emptyList()));
+        if (this.keys.isEmpty()) {
+            throw new IllegalArgumentException(i18n.errorNoKeyForUpdateQuery());
+        }
+        this.validator = new RecordValidator(keys, true);
+        this.ignoreColumns = new ArrayList<>(ofNullable(configuration.getIgnoreUpdate()).orElse(emptyList()));
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (nativeUpsert == null) {
+            // checked on the first records, once the table is created
+            try (final Connection connection = dataSource.getConnection()) {
+                nativeUpsert = getPlatform().supportsNativeUpsert(connection,
+                        getConfiguration().getDataset().getTableName(), keys);
+            }
+            if (!nativeUpsert) {
+                log.info("No unique index on the keys " + keys + ", the upsert looks up the existing keys");
+                fallback = new UpsertDefault(getPlatform(), getConfiguration(), getI18n());
+            }
+        }
+        return fallback == null ? super.execute(records, dataSource) : fallback.execute(records, dataSource);
+    }
+
+    @Override
+    public List<Reject> waitForCompletion() throws SQLException {
+        return fallback == null ? super.waitForCompletion() : fallback.waitForCompletion();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (fallback != null) {
+            fallback.close();
+        }
+    }
+
+    @Override
+    public boolean validateQueryParam(final Record record) {
+        return validator.validate(record);
+    }
+
+    @Override
+    protected QueryPlan compile(final List<Schema.Entry> distinctEntries) {
+        final Map<String, Schema.Entry> entries = distinctEntries.stream()
+                .collect(toMap(Schema.Entry::getName, identity(), (first, other) -> first, LinkedHashMap::new));
+        keys.stream().filter(key -> !entries.containsKey(key)).findFirst().ifPresent(key -> {
+            throw new IllegalStateException(getI18n().errorNoFieldForQueryParam(key));
+        });
+        final List<String> columns = new ArrayList<>(entries.keySet());
+        final List<String> parameters = new ArrayList<>();
+        final String query = getPlatform().upsertQuery(getConfiguration().getDataset().getTableName(), columns, keys,
+                columns.stream().filter(c -> !keys.contains(c) && !ignoreColumns.contains(c)).collect(toList()), parameters);
+
+        final Map<Integer, Schema.Entry> queryParams = new HashMap<>();
+        final AtomicInteger index = new AtomicInteger(0);
+        parameters.forEach(column -> queryParams.put(index.incrementAndGet(), entries.get(column)));
+        return new QueryPlan(query, queryParams);
+    }
+}
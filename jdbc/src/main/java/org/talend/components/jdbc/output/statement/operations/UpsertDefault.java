@@ -12,12 +12,13 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.Reject;
 import org.talend.components.jdbc.output.platforms.Platform;
-import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
+import org.talend.components.jdbc.output.statement.ParameterBinder;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
@@ -29,6 +30,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
@@ -38,13 +40,21 @@ import static java.util.stream.Collectors.*;
 @Getter
 public class UpsertDefault extends QueryManagerImpl {
 
+    /**
+     * Maximum number of parameters of the key lookup queries, far below the limits of the databases
+     */
+    private static final int LOOKUP_MAX_PARAMETERS = 1000;
+
     private final Insert insert;
 
     private final Update update;
 
     private final List<String> keys;
 
-    private Map<Integer, Schema.Entry> queryParams;
+    @Getter(AccessLevel.NONE)
+    private final RecordValidator validator;
+
+    private transient PipelinedExecution updater;
 
     public UpsertDefault(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
@@ -52,37 +62,51 @@ public class UpsertDefault extends QueryManagerImpl {
         if (this.keys.isEmpty()) {
             throw new IllegalArgumentException(i18n.errorNoKeyForUpdateQuery());
         }
+        this.validator = new RecordValidator(keys, false);
         insert = new Insert(platform, configuration, i18n);
+        insert.setLanes(2);
         update = new Update(platform, configuration, i18n);
+        update.setLanes(2);
     }
 
+    /**
+     * @return the query selecting the key of one record if it exists, the key entries are indexed by their position
+     */
     @Override
-    public String buildQuery(final List<Record> records) {
-        this.queryParams = new HashMap<>();
+    protected QueryPlan compile(final List<Schema.Entry> entries) {
+        final Map<Integer, Schema.Entry> queryParams = new HashMap<>();
         final AtomicInteger index = new AtomicInteger(0);
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
-
-        return "SELECT COUNT(*) AS RECORD_EXIST FROM " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
-                + " WHERE "
-                + getConfiguration().getKeys().stream()
-                        .peek(key -> queryParams.put(index.incrementAndGet(),
-                                entries.stream().filter(e -> e.getName().equals(key)).findFirst()
-                                        .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key)))))
-                        .map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
+        keys.forEach(key -> queryParams.put(index.incrementAndGet(),
+                entries.stream().filter(e -> e.getName().equals(key)).findFirst()
+                        .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key)))));
+        return new QueryPlan(lookupQuery(1), queryParams);
     }
 
-    @Override
-    public boolean validateQueryParam(final Record record) {
-        final Set<Schema.Entry> entries = new HashSet<>(record.getSchema().getEntries());
-        return keys.stream().allMatch(k -> entries.stream().anyMatch(entry -> entry.getName().equals(k)))
-                && entries.stream().filter(entry -> keys.contains(entry.getName())).filter(entry -> !entry.isNullable())
-                        .map(entry -> valueOf(record, entry)).allMatch(Optional::isPresent);
+    /**
+     * The database compares the keys with its own collations and types, each existing row returns the position of the
+     * first record matching it. The next records of the same key fail on insert and are updated then.
+     *
+     * @return the query selecting the positions of the records of an existing row among the given number of records
+     */
+    private String lookupQuery(final int records) {
+        final String columns = keys.stream().map(c -> getPlatform().identifier(c)).collect(joining(", "));
+        final String match = keys.stream().map(c -> getPlatform().identifier(c)).map(c -> c + " = ?")
+                .collect(joining(" AND "));
+        final String position = IntStream.range(0, records).mapToObj(r -> " WHEN " + match + " THEN " + r)
+                .collect(joining("", "CASE", " END"));
+        final String predicate = keys.size() == 1
+                ? columns + IntStream.range(0, records).mapToObj(r -> "?").collect(joining(",", " IN (", ")"))
+                : IntStream.range(0, records)
+                        .mapToObj(r -> keys.stream().map(c -> getPlatform().identifier(c)).map(c -> c + " = ?")
+                                .collect(joining(" AND ", "(", ")")))
+                        .collect(joining(" OR "));
+        return "SELECT " + position + " FROM " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
+                + " WHERE " + predicate;
     }
 
     @Override
-    public Map<Integer, Schema.Entry> getQueryParams() {
-        return queryParams;
+    public boolean validateQueryParam(final Record record) {
+        return validator.validate(record);
     }
 
     @Override
@@ -90,27 +114,119 @@ public class UpsertDefault extends QueryManagerImpl {
         if (records.isEmpty()) {
             return emptyList();
         }
-        final List<Record> needUpdate = new ArrayList<>();
-        final List<Record> needInsert = new ArrayList<>();
-        final String query = buildQuery(records);
         final List<Reject> discards = new ArrayList<>();
+        final List<Record> valid = new ArrayList<>(records.size());
+        for (final Record record : records) {
+            if (!validateQueryParam(record)) {
+                discards.add(new Reject("missing required query param in this record", record));
+                continue;
+            }
+            valid.add(record);
+        }
+        if (!valid.isEmpty()) {
+            buildQuery(valid);
+        }
+        final Set<Integer> existing = existing(valid, dataSource);
+        final Map<Boolean, List<Record>> needUpdate = IntStream.range(0, valid.size()).boxed()
+                .collect(partitioningBy(existing::contains, mapping(valid::get, toList())));
+
+        // the update runs on a second connection while the insert uses the first one, when the pool has two
+        if (updater == null) {
+            updater = new PipelinedExecution(1);
+        }
+        if (!needUpdate.get(true).isEmpty()) {
+            if (dataSource.getMaxConnections() > 1) {
+                updater.submit(() -> update.execute(needUpdate.get(true), dataSource));
+            } else {
+                discards.addAll(update.execute(needUpdate.get(true), dataSource));
+            }
+        }
+        final List<Reject> failedInserts = new ArrayList<>();
+        if (!needUpdate.get(false).isEmpty()) {
+            failedInserts.addAll(insert.execute(needUpdate.get(false), dataSource));
+        }
+        discards.addAll(updater.drain());
+        // the next records need to see those ones to know if they exist
+        failedInserts.addAll(insert.waitForCompletion());
+        discards.addAll(update.waitForCompletion());
+        discards.addAll(updateDuplicates(failedInserts, dataSource));
+
+        return discards;
+    }
+
+    @Override
+    public void close() {
+        if (updater != null) {
+            updater.close();
+            updater = null;
+        }
+        insert.close();
+        update.close();
+    }
+
+    /**
+     * Update the records whose insert failed on an existing key, like the rows inserted meanwhile or by a previous record
+     * of the group. The records whose key is still not found keep the insert error.
+     *
+     * @return the rejected records
+     */
+    private List<Reject> updateDuplicates(final List<Reject> failedInserts, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException {
+        final List<Reject> rejects = new ArrayList<>();
+        final List<Reject> duplicates = new ArrayList<>();
+        for (final Reject reject : failedInserts) {
+            (getPlatform().isDuplicateKey(reject.getSqlState(), reject.getErrorCode()) ? duplicates : rejects).add(reject);
+        }
+        if (duplicates.isEmpty()) {
+            return rejects;
+        }
+        final List<Record> records = duplicates.stream().map(Reject::getRecord).collect(toList());
+        final Set<Integer> existing = existing(records, dataSource);
+        final List<Record> found = new ArrayList<>(existing.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (existing.contains(i)) {
+                found.add(records.get(i));
+            } else {
+                rejects.add(duplicates.get(i));
+            }
+        }
+        if (!found.isEmpty()) {
+            rejects.addAll(update.execute(found, dataSource));
+            rejects.addAll(update.waitForCompletion());
+        }
+        return rejects;
+    }
+
+    /**
+     * Look up the records by chunks, one round trip per chunk instead of one per record.
+     *
+     * @return the positions of the records of an existing row
+     */
+    private Set<Integer> existing(final List<Record> records, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException {
+        final Set<Integer> existing = new HashSet<>();
+        if (records.isEmpty()) {
+            return existing;
+        }
+        // the keys are bound twice, in the positions and in the predicate
+        final int chunkSize = Math.max(1, LOOKUP_MAX_PARAMETERS / (2 * keys.size()));
+        final ParameterBinder binder = getPlan().getBinder();
         try (final Connection connection = dataSource.getConnection()) {
-            try (final PreparedStatement statement = connection.prepareStatement(query)) {
-                for (final Record record : records) {
-                    statement.clearParameters();
-                    if (!validateQueryParam(record)) {
-                        discards.add(new Reject("missing required query param in this record", record));
-                        continue;
-                    }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
-                    }
-                    try (final ResultSet result = statement.executeQuery()) {
-                        if (result.next() && result.getInt("RECORD_EXIST") > 0) {
-                            needUpdate.add(record);
-                        } else {
-                            needInsert.add(record);
+            try {
+                for (int start = 0; start < records.size(); start += chunkSize) {
+                    final List<Record> chunk = records.subList(start, Math.min(records.size(), start + chunkSize));
+                    try (final PreparedStatement statement = connection.prepareStatement(lookupQuery(chunk.size()))) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            binder.bind(statement, i * binder.size(), chunk.get(i));
+                            binder.bind(statement, (chunk.size() + i) * binder.size(), chunk.get(i));
+                        }
+                        try (final ResultSet result = statement.executeQuery()) {
+                            while (result.next()) {
+                                final int position = result.getInt(1);
+                                if (!result.wasNull()) {
+                                    existing.add(start + position);
+                                }
+                            }
                         }
                     }
                 }
@@ -120,17 +236,6 @@ public class UpsertDefault extends QueryManagerImpl {
                 throw e;
             }
         }
-
-        // fixme handle the update and insert in // need a pool of 2 !
-        if (!needInsert.isEmpty()) {
-            insert.buildQuery(needInsert);
-            discards.addAll(insert.execute(needInsert, dataSource));
-        }
-        if (!needUpdate.isEmpty()) {
-            update.buildQuery(needUpdate);
-            discards.addAll(update.execute(needUpdate, dataSource));
-        }
-
-        return discards;
+        return existing;
     }
 }
@@ -14,15 +14,20 @@ package org.talend.components.jdbc.output.statement.operations.snowflake;
 
 import lombok.Data;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.StagingFormat;
 import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,56 +37,108 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import static java.nio.file.Files.createTempDirectory;
 import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newBufferedWriter;
 import static java.time.LocalDateTime.now;
 import static java.time.format.DateTimeFormatter.ofPattern;
 import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
-import static org.apache.commons.codec.binary.Hex.encodeHexString;
 import static org.talend.components.jdbc.output.statement.operations.QueryManagerImpl.valueOf;
 
 @Slf4j
 public class SnowflakeCopy {
 
-    private static final long maxChunk = 16 * 1024 * 1024; // 16MB
+    private static final long maxChunk = 16 * 1024 * 1024; // 16MB compressed
 
-    private static final String TIMESTAMP_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
 
-    public static List<Reject> putAndCopy(final Connection connection, final List<Record> records, final String fqStageName,
-            final String fqTableName, final String fqTmpTableName) throws SQLException {
+    /**
+     * Maximum number of chunks uploaded in parallel, each upload uses its own connection from the pool
+     */
+    private static final int UPLOADERS = 4;
 
-        final List<RecordChunk> chunks = splitRecords(createWorkDir(), records);
-        try (final Statement statement = connection.createStatement()) {
-            statement.execute("create temporary table if not exists " + fqTmpTableName + " like " + fqTableName);
+    private static final int PUT_RETRIES = 3;
+
+    /**
+     * Stage the records in gzipped chunks and copy them in the tmp table, see {@link SnowflakeStaging}. Each chunk is uploaded as soon as it is
+     * written, by a dedicated uploader on its own connection, while the next one is written. The uploaders share the pool
+     * with the staging connection, the chunks are uploaded on the staging connection when the pool has no other one.
+     *
+     * @param format the format of the staged chunks, csv columns are copied by position and json ones by name
+     * @param stageLocation a stage location reachable by all the sessions of the user, see {@link #stageLocation(String)}
+     */
+    public static List<Reject> putAndCopy(final JdbcService.JdbcDatasource dataSource, final Connection connection,
+            final List<Record> records, final StagingFormat format, final String stageLocation, final String fqTmpTableName)
+            throws SQLException {
+        final Queue<Reject> rejects = new ConcurrentLinkedQueue<>();
+        final List<Future<RecordChunk>> uploads = new ArrayList<>();
+        final int uploaders = Math.min(UPLOADERS, dataSource.getMaxConnections() - 1);
+        final AtomicInteger uploaderCount = new AtomicInteger(0);
+        final ExecutorService uploader = uploaders <= 0 ? null : Executors.newFixedThreadPool(uploaders, r -> {
+            final Thread thread = new Thread(r, "snowflake-put-" + uploaderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            writeChunks(createWorkDir(), format, records, chunk -> uploads.add(uploader == null
+                    ? CompletableFuture.completedFuture(doPUT(dataSource, connection, stageLocation, chunk, records, rejects))
+                    : uploader.submit(() -> doPUT(dataSource, null, stageLocation, chunk, records, rejects))));
+            final List<RecordChunk> copy = new ArrayList<>();
+            for (final Future<RecordChunk> upload : uploads) {
+                final RecordChunk chunk = await(upload);
+                if (chunk != null) {
+                    copy.add(chunk);
+                }
+            }
+            if (!copy.isEmpty()) {
+                rejects.addAll(toReject(records, copy, doCopy(format, stageLocation, fqTmpTableName, connection, copy)));
+            }
+        } finally {
+            if (uploader != null) {
+                uploader.shutdownNow();
+            }
         }
-        final List<Reject> rejects = new ArrayList<>();
-        final List<RecordChunk> copy = chunks.stream().parallel().map(chunk -> doPUT(fqStageName, connection, chunk, rejects))
-                .filter(Objects::nonNull).collect(toList());
-        rejects.addAll(toReject(chunks, doCopy(fqStageName, fqTmpTableName, connection, copy)));
-        return rejects;
+        return new ArrayList<>(rejects);
     }
 
     /**
-     * @return a tmp table name from the original table name
+     * The stage of a temporary table is only visible by its session, the chunks are uploaded in the user stage instead.
+     *
+     * @return the location of the staged chunks of a tmp table
      */
+    public static String stageLocation(final String tmpTableName) {
+        return "~/" + tmpTableName;
+    }
 
+    /**
+     * The name is unique by output instance: it is also the folder of the staged chunks in the user stage, which is shared
+     * by all the sessions of the user, and each instance removes its folder when it is closed.
+     *
+     * @return a tmp table name from the original table name
+     */
     public static String tmpTableName(final String tableName) {
-        final String suffix = now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss"));
-        String tmpTableName = "tmp_" + tableName + "_" + suffix;
-        return tmpTableName.length() < 256 ? tmpTableName : tmpTableName.substring(0, 256);
+        final String suffix = "_" + now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss")) + "_"
+                + UUID.randomUUID().toString().replace("-", "");
+        final String prefix = "tmp_" + tableName;
+        return prefix.substring(0, Math.min(prefix.length(), 255 - suffix.length())) + suffix;
     }
 
     private static Path createWorkDir() {
@@ -102,49 +159,91 @@ public class SnowflakeCopy {
         }
     }
 
-    private static List<Reject> toReject(final List<RecordChunk> chunks, final List<CopyError> errors) {
-        return errors.stream().flatMap(error -> chunks.stream()
-                .filter(chunk -> error.getFile().startsWith(chunk.getChunk().getFileName().toString()))
-                .map(chunk -> new Reject(
-                        error.getError() + (error.getErrorColumnName() == null || error.getErrorColumnName().isEmpty() ? ""
-                                : ", columnName=" + error.getErrorColumnName()),
-                        chunk.getRecords().get(error.getErrorLine() - 1))))
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static List<Reject> toReject(final List<Record> records, final List<RecordChunk> chunks,
+            final List<CopyError> errors) {
+        return errors.stream()
+                .flatMap(error -> chunks.stream().filter(chunk -> error.getFile().startsWith(chunk.getFileName()))
+                        .map(chunk -> new Reject(
+                                error.getError() + (error.getErrorColumnName() == null || error.getErrorColumnName().isEmpty()
+                                        ? ""
+                                        : ", columnName=" + error.getErrorColumnName()),
+                                records.get(chunk.getStart() + error.getErrorLine() - 1))))
                 .collect(toList());
     }
 
-    private static RecordChunk doPUT(final String fqStageName, final Connection connection, final RecordChunk chunk,
-            final List<Reject> rejects) {
-        try (final Statement statement = connection.createStatement()) {
-            try (final ResultSet result = statement
-                    .executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@" + fqStageName + "/' AUTO_COMPRESS=TRUE")) {
-                result.next();
-                if (!"uploaded".equalsIgnoreCase(result.getString("status"))) {
-                    String error = result.getString("message");
-                    rejects.addAll(toReject(chunk, error, result.getString("status"), null));
+    /**
+     * Upload a chunk, retrying a few times as uploads are sensitive to network hiccups.
+     *
+     * @param shared the connection to upload the chunk with, null to lease one from the pool
+     * @return the uploaded chunk, null if it was rejected
+     */
+    private static RecordChunk doPUT(final JdbcService.JdbcDatasource dataSource, final Connection shared,
+            final String stageLocation, final RecordChunk chunk, final List<Record> records, final Queue<Reject> rejects) {
+        try {
+            for (int attempt = 1;; attempt++) {
+                try (final Connection leased = shared == null ? dataSource.getConnection() : null;
+                        final Statement statement = (leased == null ? shared : leased).createStatement();
+                        final ResultSet result = statement.executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@"
+                                + stageLocation + "/' AUTO_COMPRESS=FALSE SOURCE_COMPRESSION=GZIP")) {
+                    result.next();
+                    if ("uploaded".equalsIgnoreCase(result.getString("status"))) {
+                        return chunk;
+                    }
+                    if (attempt >= PUT_RETRIES) {
+                        rejects.addAll(toReject(records, chunk, result.getString("message"), result.getString("status"), null));
+                        return null;
+                    }
+                    log.warn("Upload of " + chunk.getFileName() + " failed with status " + result.getString("status")
+                            + ", retrying for the " + attempt + " time");
+                } catch (final SQLException e) {
+                    if (attempt >= PUT_RETRIES) {
+                        rejects.addAll(toReject(records, chunk, e.getMessage(), e.getSQLState(), e.getErrorCode()));
+                        return null;
+                    }
+                    log.warn("Upload of " + chunk.getFileName() + " failed, retrying for the " + attempt + " time", e);
+                }
+                try {
+                    Thread.sleep(1000L * attempt);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejects.addAll(toReject(records, chunk, "upload interrupted", null, null));
                     return null;
                 }
             }
-            return chunk;
-        } catch (final SQLException e) {
-            rejects.addAll(toReject(chunk, e.getMessage(), e.getSQLState(), e.getErrorCode()));
-            return null;
+        } finally {
+            try {
+                Files.deleteIfExists(chunk.getChunk());
+            } catch (final IOException e) {
+                log.warn("can't delete the staged chunk " + chunk.getChunk(), e);
+            }
         }
     }
 
-    private static List<Reject> toReject(RecordChunk chunk, String error, final String state, final Integer code) {
-        return chunk.getRecords().stream().map(record -> new Reject(error, state, code, record)).collect(Collectors.toList());
+    private static List<Reject> toReject(final List<Record> records, final RecordChunk chunk, final String error,
+            final String state, final Integer code) {
+        return records.subList(chunk.getStart(), chunk.getEnd()).stream().map(record -> new Reject(error, state, code, record))
+                .collect(toList());
     }
 
-    private static List<CopyError> doCopy(final String fqStageName, final String fqTableName, final Connection connection,
+    private static List<CopyError> doCopy(final StagingFormat format, final String stageLocation, final String fqTableName, final Connection connection,
             final List<RecordChunk> chunks) {
         final List<CopyError> errors = new ArrayList<>();
         try (final Statement statement = connection.createStatement()) {
             try (final ResultSet result = statement
-                    .executeQuery("COPY INTO " + fqTableName + " from '@" + fqStageName + "'" + " FILES="
-                            + chunks.stream().map(chunk -> chunk.getChunk().getFileName()).map(name -> "'" + name + ".gz'")
-                                    .collect(joining(",", "(", ")"))
-                            + " FILE_FORMAT=(TYPE=CSV field_delimiter=',' COMPRESSION=GZIP field_optionally_enclosed_by='\"')"
-                            + " PURGE=TRUE ON_ERROR='CONTINUE'")) {
+                    .executeQuery("COPY INTO " + fqTableName + " from '@" + stageLocation + "/'" + " FILES="
+                            + chunks.stream().map(chunk -> "'" + chunk.getFileName() + "'").collect(joining(",", "(", ")"))
+                            + fileFormat(format) + " PURGE=TRUE ON_ERROR='CONTINUE'")) {
                 while (result.next()) {
                     final String status = result.getString("status");
                     switch (status.toLowerCase(ROOT)) {
@@ -173,6 +272,17 @@ public class SnowflakeCopy {
         }
     }
 
+    private static String fileFormat(final StagingFormat format) {
+        switch (format) {
+        case JSON:
+            return " FILE_FORMAT=(TYPE=JSON COMPRESSION=GZIP BINARY_FORMAT=BASE64) MATCH_BY_COLUMN_NAME=CASE_INSENSITIVE";
+        case CSV:
+        default:
+            return " FILE_FORMAT=(TYPE=CSV field_delimiter=',' COMPRESSION=GZIP field_optionally_enclosed_by='\"'"
+                    + " BINARY_FORMAT=BASE64)";
+        }
+    }
+
     @Data
     private static class CopyError {
 
@@ -195,66 +305,82 @@ public class SnowflakeCopy {
         private final int rowParsed;
     }
 
-    private static List<RecordChunk> splitRecords(final Path directoryPath, final List<Record> records) {
-        final AtomicLong size = new AtomicLong(0);
-        final AtomicInteger count = new AtomicInteger(0);
-        final AtomicInteger recordCounter = new AtomicInteger(0);
-        final Map<Integer, RecordChunk> chunks = new HashMap<>();
-        records.stream()
-                .map(record -> record.getSchema().getEntries().stream().map(entry -> format(record, entry)).collect(joining(",")))
-                .forEach(line -> {
-                    if (size.addAndGet(line.getBytes(StandardCharsets.UTF_8).length) > maxChunk) {
-                        // this writer can be closed now. to early free of memory
-                        chunks.get(count.getAndIncrement()).close();
-                        size.set(line.getBytes(StandardCharsets.UTF_8).length);
-                    }
-                    final int recordNumber = recordCounter.getAndIncrement();
-                    chunks.computeIfAbsent(count.get(), key -> new RecordChunk(records, key, recordNumber, directoryPath))
-                            .writer(line);
-                });
-        chunks.get(count.get()).close(); // close the last writer
-        return new ArrayList<>(chunks.values());
+    /**
+     * Write the records in chunks rolled by compressed size, each chunk is handed over as soon as it is closed.
+     */
+    private static void writeChunks(final Path directoryPath, final StagingFormat format, final List<Record> records,
+            final Consumer<RecordChunk> onClose) {
+        RecordChunk chunk = null;
+        int part = 0;
+        for (int i = 0; i < records.size(); i++) {
+            if (chunk == null) {
+                chunk = new RecordChunk(part++, i, directoryPath, format);
+            }
+            chunk.write(records.get(i));
+            if (chunk.getCompressedSize() >= maxChunk) {
+                chunk.close();
+                onClose.accept(chunk);
+                chunk = null;
+            }
+        }
+        if (chunk != null) {
+            chunk.close();
+            onClose.accept(chunk);
+        }
     }
 
+    /**
+     * A gzipped file of the records from start (inclusive) to end (exclusive), one record per line
+     */
     @Getter
-    @RequiredArgsConstructor
     private static class RecordChunk {
 
-        private final List<Record> records;
-
-        private final int part;
-
         private final int start;
 
-        private final Path tmpDir;
+        private final Path chunk;
+
+        private final StagingFormat format;
 
-        private Path chunk;
+        private final CountingOutputStream compressed;
 
-        private BufferedWriter writer;
+        private final Writer writer;
 
         private int end;
 
-        List<Record> getRecords() {
-            if (records == null) {
-                return null;
+        RecordChunk(final int part, final int start, final Path tmpDir, final StagingFormat format) {
+            this.start = start;
+            this.end = start;
+            this.format = format;
+            final String suffix = now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss"));
+            try {
+                chunk = createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + "." + format.name().toLowerCase(ROOT) + ".gz");
+                compressed = new CountingOutputStream(Files.newOutputStream(chunk));
+                writer = new BufferedWriter(
+                        new OutputStreamWriter(new GZIPOutputStream(compressed, 64 * 1024), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
             }
-            return records.subList(start, end);
         }
 
-        void writer(final String line) {
-            if (writer == null) {
-                end = start;
-                final String suffix = now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss"));
-                try {
-                    chunk = createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + ".csv");
-                    writer = newBufferedWriter(chunk, StandardCharsets.UTF_8);
-                } catch (IOException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
+        String getFileName() {
+            return chunk.getFileName().toString();
+        }
+
+        long getCompressedSize() {
+            return compressed.getCount();
+        }
+
+        void write(final Record record) {
             try {
-                writer.write(line);
-                writer.newLine();
+                switch (format) {
+                case JSON:
+                    writeJson(writer, record);
+                    break;
+                case CSV:
+                default:
+                    writeCsv(writer, record);
+                }
+                writer.write('\n');
                 end++;
             } catch (final IOException e) {
                 throw new IllegalStateException(e);
@@ -262,32 +388,166 @@ public class SnowflakeCopy {
         }
 
         void close() {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (IOException e) {
-                    throw new IllegalStateException(e);
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        @Getter
+        private long count;
+
+        private CountingOutputStream(final OutputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static void writeCsv(final Writer writer, final Record record) throws IOException {
+        boolean first = true;
+        for (final Schema.Entry entry : record.getSchema().getEntries()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (entry.getType() == Schema.Type.STRING) {
+                writeCsvString(writer, record.getString(entry.getName()));
+            } else {
+                final String value = format(record, entry);
+                if (value != null) {
+                    writer.write(value);
                 }
             }
         }
     }
 
+    /**
+     * Null values are left empty, empty strings are enclosed so they are not loaded as null.
+     */
+    private static void writeCsvString(final Writer writer, final String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0
+                && value.indexOf(',') < 0 && value.indexOf('\\') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Write the record as a json object, null values are left out and loaded as null by the copy.
+     */
+    private static void writeJson(final Writer writer, final Record record) throws IOException {
+        boolean first = true;
+        writer.write('{');
+        for (final Schema.Entry entry : record.getSchema().getEntries()) {
+            final String value = entry.getType() == Schema.Type.STRING ? record.getString(entry.getName())
+                    : format(record, entry);
+            if (value == null) {
+                continue;
+            }
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeJsonString(writer, entry.getName());
+            writer.write(':');
+            switch (entry.getType()) {
+            case INT:
+            case LONG:
+            case BOOLEAN:
+                writer.write(value);
+                break;
+            case FLOAT:
+            case DOUBLE:
+                if (Character.isDigit(value.charAt(value.length() - 1))) {
+                    writer.write(value);
+                } else { // json numbers can't be NaN or infinite
+                    writeJsonString(writer, value);
+                }
+                break;
+            default:
+                writeJsonString(writer, value);
+            }
+        }
+        writer.write('}');
+    }
+
+    private static void writeJsonString(final Writer writer, final String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                writer.write("\\\"");
+                break;
+            case '\\':
+                writer.write("\\\\");
+                break;
+            case '\n':
+                writer.write("\\n");
+                break;
+            case '\r':
+                writer.write("\\r");
+                break;
+            case '\t':
+                writer.write("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    writer.write(String.format(ROOT, "\\u%04x", (int) c));
+                } else {
+                    writer.write(c);
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * @return the text of a non string value, null when the value is missing
+     */
     private static String format(final Record record, final Schema.Entry entry) {
         switch (entry.getType()) {
         case INT:
         case LONG:
         case BOOLEAN:
-            return valueOf(record, entry).map(String::valueOf).orElse("");
+            return valueOf(record, entry).map(String::valueOf).orElse(null);
         case FLOAT:
-            return valueOf(record, entry).map(v -> Float.toHexString((Float) v)).orElse("");
         case DOUBLE:
-            return valueOf(record, entry).map(v -> Double.toHexString((Double) v)).orElse("");
+            // floats are read as doubles, the shortest decimal representation is parsed back to the same value
+            return valueOf(record, entry).map(v -> format((Double) v)).orElse(null);
         case BYTES:
-            return valueOf(record, entry).map(v -> encodeHexString((byte[]) v)).orElse("");
+            return valueOf(record, entry).map(v -> Base64.getEncoder().encodeToString((byte[]) v)).orElse(null);
         case DATETIME:
-            return valueOf(record, entry).map(v -> ((ZonedDateTime) v).format(ofPattern(TIMESTAMP_FORMAT_PATTERN))).orElse("");
+            return valueOf(record, entry).map(v -> ((ZonedDateTime) v).format(TIMESTAMP_FORMAT)).orElse(null);
         case STRING:
-            return escape(record.getString(entry.getName()));
+            return record.getString(entry.getName());
         case ARRAY:
         case RECORD:
         default:
@@ -295,17 +555,13 @@ public class SnowflakeCopy {
         }
     }
 
-    private static String escape(final String value) {
-        if (value == null) {
-            return "";
-        }
-        if (value.isEmpty()) {
-            return "\"\"";
+    private static String format(final double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
         }
-        if (value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf(',') >= 0 || value.indexOf('\\') >= 0) {
-            return '"' + value.replaceAll("\"", "\"\"") + '"';
-        } else {
-            return value;
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "inf" : "-inf";
         }
+        return Double.toString(value);
     }
 }
@@ -20,18 +20,14 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
-
 public class SnowflakeInsert extends Insert {
 
+    private transient SnowflakeStaging staging;
+
     public SnowflakeInsert(Platform platform, OutputConfig configuration, I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
@@ -39,27 +35,22 @@ public class SnowflakeInsert extends Insert {
     @Override
     public List<Reject> execute(List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
         buildQuery(records);
-        final List<Reject> rejects = new ArrayList<>();
-        try (final Connection connection = dataSource.getConnection()) {
-            final String tableName = getConfiguration().getDataset().getTableName();
-            final String tmpTableName = tmpTableName(tableName);
-            final String fqTableName = namespace(connection) + "." + getPlatform().identifier(tableName);
-            final String fqTmpTableName = namespace(connection) + "." + getPlatform().identifier(tmpTableName);
-            final String fqStageName = namespace(connection) + ".%" + getPlatform().identifier(tmpTableName);
-            rejects.addAll(putAndCopy(connection, records, fqStageName, fqTableName, fqTmpTableName));
-            if (records.size() != rejects.size()) {
-                try (final Statement statement = connection.createStatement()) {
-                    statement
-                            .execute(
-                                    "insert into " + fqTableName
-                                            + getQueryParams().values().stream().map(e -> getPlatform().identifier(e.getName()))
-                                                    .collect(Collectors.joining(",", "(", ")"))
-                                            + " select * from " + fqTmpTableName);
-                }
-            }
-            connection.commit();
+        if (staging == null) {
+            staging = SnowflakeStaging.open(this, dataSource);
         }
-        return rejects;
+        return staging.execute(dataSource, records, getConfiguration().getStagingFormat(),
+                (table, tmpTable) -> "insert into " + table
+                        + getQueryParams().values().stream().map(e -> getPlatform().identifier(e.getName()))
+                                .collect(Collectors.joining(",", "(", ")"))
+                        + " select * from " + tmpTable);
     }
 
+    @Override
+    public void close() {
+        super.close();
+        if (staging != null) {
+            staging.close();
+            staging = null;
+        }
+    }
 }
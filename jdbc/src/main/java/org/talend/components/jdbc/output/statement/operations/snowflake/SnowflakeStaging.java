@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.snowflake;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.StagingFormat;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.stageLocation;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
+
+/**
+ * The tmp table and the stage location where the records of an output are copied before being applied to the table.
+ * They are created once and reused by all the groups of the output. A temporary table only lives in the session which
+ * created it, so the staging keeps its own connection until it is closed.
+ */
+@Slf4j
+@AllArgsConstructor
+class SnowflakeStaging implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final String stageLocation;
+
+    private final String fqTableName;
+
+    private final String fqTmpTableName;
+
+    static SnowflakeStaging open(final QueryManagerImpl manager, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final String tableName = manager.getConfiguration().getDataset().getTableName();
+            final String tmpTableName = tmpTableName(tableName);
+            final String fqTableName = manager.namespace(connection) + "." + manager.getPlatform().identifier(tableName);
+            final String fqTmpTableName = manager.namespace(connection) + "." + manager.getPlatform().identifier(tmpTableName);
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute("create temporary table if not exists " + fqTmpTableName + " like " + fqTableName);
+            }
+            connection.commit();
+            return new SnowflakeStaging(connection, stageLocation(tmpTableName), fqTableName, fqTmpTableName);
+        } catch (final SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copy the records in the emptied tmp table, then apply them to the table.
+     *
+     * @param statement builds the statement applying the tmp table to the table from their fully qualified names
+     */
+    List<Reject> execute(final JdbcService.JdbcDatasource dataSource, final List<Record> records, final StagingFormat format,
+            final BiFunction<String, String, String> statement) throws SQLException {
+        try (final Statement truncate = connection.createStatement()) {
+            truncate.execute("truncate table " + fqTmpTableName);
+        }
+        final List<Reject> rejects = new ArrayList<>(
+                putAndCopy(dataSource, connection, records, format, stageLocation, fqTmpTableName));
+        if (records.size() != rejects.size()) {
+            try (final Statement apply = connection.createStatement()) {
+                apply.execute(statement.apply(fqTableName, fqTmpTableName));
+            }
+        }
+        connection.commit();
+        return rejects;
+    }
+
+    /**
+     * Drop the tmp table and the files left in the stage location of this instance
+     */
+    @Override
+    public void close() {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + fqTmpTableName);
+            statement.execute("remove '@" + stageLocation + "/'");
+            connection.commit();
+        } catch (final SQLException e) {
+            log.warn("can't clean the snowflake tmp table " + fqTmpTableName, e);
+        } finally {
+            try {
+                connection.close();
+            } catch (final SQLException e) {
+                log.warn("can't close the snowflake staging connection", e);
+            }
+        }
+    }
+}
@@ -20,19 +20,15 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 
-import static java.time.LocalDateTime.now;
 import static java.util.stream.Collectors.joining;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
 
 public class SnowflakeUpdate extends Update {
 
+    private transient SnowflakeStaging staging;
+
     public SnowflakeUpdate(Platform platform, OutputConfig configuration, I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
@@ -40,28 +36,26 @@ public class SnowflakeUpdate extends Update {
     @Override
     public List<Reject> execute(List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
         buildQuery(records);
-        final List<Reject> rejects = new ArrayList<>();
-        try (final Connection connection = dataSource.getConnection()) {
-            final String tableName = getConfiguration().getDataset().getTableName();
-            final String tmpTableName = tmpTableName(tableName);
-            final String fqTableName = namespace(connection) + "." + getPlatform().identifier(tableName);
-            final String fqTmpTableName = namespace(connection) + "." + getPlatform().identifier(tmpTableName);
-            final String fqStageName = namespace(connection) + ".%" + getPlatform().identifier(tmpTableName);
-            rejects.addAll(putAndCopy(connection, records, fqStageName, fqTableName, fqTmpTableName));
-            if (records.size() != rejects.size()) {
-                try (final Statement statement = connection.createStatement()) {
-                    statement.execute("merge into " + fqTableName + " target using " + fqTmpTableName + " as source on "
-                            + getConfiguration().getKeys().stream().map(key -> getPlatform().identifier(key))
-                                    .map(key -> "source." + key + "= target." + key).collect(joining("AND", " ", " "))
-                            + " when matched then update set "
-                            + getQueryParams().values().stream()
-                                    .filter(p -> !getIgnoreColumns().contains(p.getName()) && !getKeys().contains(p.getName()))
-                                    .map(e -> getPlatform().identifier(e.getName()))
-                                    .map(name -> "target." + name + "= source." + name).collect(joining(",", "", " ")));
-                }
-            }
-            connection.commit();
+        if (staging == null) {
+            staging = SnowflakeStaging.open(this, dataSource);
+        }
+        return staging.execute(dataSource, records, getConfiguration().getStagingFormat(),
+                (table, tmpTable) -> "merge into " + table + " target using " + tmpTable + " as source on "
+                        + getConfiguration().getKeys().stream().map(key -> getPlatform().identifier(key))
+                                .map(key -> "source." + key + "= target." + key).collect(joining("AND", " ", " "))
+                        + " when matched then update set "
+                        + getQueryParams().values().stream()
+                                .filter(p -> !getIgnoreColumns().contains(p.getName()) && !getKeys().contains(p.getName()))
+                                .map(e -> getPlatform().identifier(e.getName()))
+                                .map(name -> "target." + name + "= source." + name).collect(joining(",", "", " ")));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (staging != null) {
+            staging.close();
+            staging = null;
         }
-        return rejects;
     }
 }
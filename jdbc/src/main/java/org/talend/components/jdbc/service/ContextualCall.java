@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import java.sql.SQLException;
+
+/**
+ * Run a jdbc call with the driver classloader as thread context classloader. The switch is skipped when it is already the
+ * current one.
+ */
+final class ContextualCall {
+
+    @FunctionalInterface
+    interface SqlSupplier<T> {
+
+        T get() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface SqlRunnable {
+
+        void run() throws SQLException;
+    }
+
+    static <T> T call(final ClassLoader classLoader, final SqlSupplier<T> supplier) throws SQLException {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader prev = thread.getContextClassLoader();
+        if (prev == classLoader) {
+            return supplier.get();
+        }
+        thread.setContextClassLoader(classLoader);
+        try {
+            return supplier.get();
+        } finally {
+            thread.setContextClassLoader(prev);
+        }
+    }
+
+    static void run(final ClassLoader classLoader, final SqlRunnable runnable) throws SQLException {
+        call(classLoader, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private ContextualCall() {
+        // no-op
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import static org.talend.components.jdbc.service.ContextualCall.call;
+import static org.talend.components.jdbc.service.ContextualCall.run;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+import lombok.experimental.Delegate;
+
+/**
+ * Connection of a driver loaded in its own classloader. Only the calls which can reach the driver loading logic (statements
+ * creation and execution, transactions, metadata, closing) switch the thread context classloader, the other ones are plain
+ * delegation.
+ */
+public class ContextualConnection implements Connection {
+
+    @Delegate(excludes = Contextual.class)
+    private final Connection delegate;
+
+    private final ClassLoader classLoader;
+
+    public ContextualConnection(final Connection delegate, final ClassLoader classLoader) {
+        this.delegate = delegate;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return new ContextualStatement(call(classLoader, delegate::createStatement), this, classLoader);
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+        return new ContextualStatement(call(classLoader, () -> delegate.createStatement(resultSetType, resultSetConcurrency)),
+                this, classLoader);
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
+            throws SQLException {
+        return new ContextualStatement(
+                call(classLoader, () -> delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability)),
+                this, classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql) throws SQLException {
+        return new ContextualPreparedStatement(call(classLoader, () -> delegate.prepareStatement(sql)), this, classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return new ContextualPreparedStatement(call(classLoader, () -> delegate.prepareStatement(sql, autoGeneratedKeys)), this,
+                classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+        return new ContextualPreparedStatement(call(classLoader, () -> delegate.prepareStatement(sql, columnIndexes)), this,
+                classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+        return new ContextualPreparedStatement(call(classLoader, () -> delegate.prepareStatement(sql, columnNames)), this,
+                classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
+            throws SQLException {
+        return new ContextualPreparedStatement(
+                call(classLoader, () -> delegate.prepareStatement(sql, resultSetType, resultSetConcurrency)), this, classLoader);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
+            final int resultSetHoldability) throws SQLException {
+        return new ContextualPreparedStatement(
+                call(classLoader,
+                        () -> delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability)),
+                this, classLoader);
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return call(classLoader, delegate::getMetaData);
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        run(classLoader, delegate::commit);
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        run(classLoader, delegate::rollback);
+    }
+
+    @Override
+    public void rollback(final Savepoint savepoint) throws SQLException {
+        run(classLoader, () -> delegate.rollback(savepoint));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        run(classLoader, delegate::close);
+    }
+
+    private interface Contextual {
+
+        Statement createStatement() throws SQLException;
+
+        Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+                throws SQLException;
+
+        DatabaseMetaData getMetaData() throws SQLException;
+
+        void commit() throws SQLException;
+
+        void rollback() throws SQLException;
+
+        void rollback(Savepoint savepoint) throws SQLException;
+
+        void close() throws SQLException;
+    }
+}
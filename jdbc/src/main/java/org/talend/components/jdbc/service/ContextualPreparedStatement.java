@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import static org.talend.components.jdbc.service.ContextualCall.call;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import lombok.experimental.Delegate;
+
+/**
+ * Prepared statement of a {@link ContextualConnection}. Parameter setters are plain delegation, only executions switch the
+ * thread context classloader.
+ */
+public class ContextualPreparedStatement extends ContextualStatement implements PreparedStatement {
+
+    @Delegate(excludes = { Statement.class, Contextual.class })
+    private final PreparedStatement delegate;
+
+    ContextualPreparedStatement(final PreparedStatement delegate, final Connection connection, final ClassLoader classLoader) {
+        super(delegate, connection, classLoader);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return wrap(call(classLoader, delegate::executeQuery));
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return call(classLoader, delegate::executeUpdate);
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return call(classLoader, delegate::executeLargeUpdate);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return call(classLoader, delegate::execute);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return call(classLoader, delegate::getMetaData);
+    }
+
+    private interface Contextual {
+
+        ResultSet executeQuery() throws SQLException;
+
+        int executeUpdate() throws SQLException;
+
+        long executeLargeUpdate() throws SQLException;
+
+        boolean execute() throws SQLException;
+
+        ResultSetMetaData getMetaData() throws SQLException;
+    }
+}
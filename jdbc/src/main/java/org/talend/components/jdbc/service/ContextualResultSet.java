@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import static org.talend.components.jdbc.service.ContextualCall.call;
+import static org.talend.components.jdbc.service.ContextualCall.run;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import lombok.experimental.Delegate;
+
+/**
+ * Result set of a {@link ContextualStatement}. Typed getters are plain delegation, fetching the next rows and the object
+ * mapping switch the thread context classloader.
+ */
+public class ContextualResultSet implements ResultSet {
+
+    @Delegate(excludes = Contextual.class)
+    private final ResultSet delegate;
+
+    private final Statement statement;
+
+    private final ClassLoader classLoader;
+
+    ContextualResultSet(final ResultSet delegate, final Statement statement, final ClassLoader classLoader) {
+        this.delegate = delegate;
+        this.statement = statement;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return call(classLoader, delegate::next);
+    }
+
+    @Override
+    public Object getObject(final int columnIndex) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnIndex));
+    }
+
+    @Override
+    public Object getObject(final String columnLabel) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnLabel));
+    }
+
+    @Override
+    public Object getObject(final int columnIndex, final Map<String, Class<?>> map) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnIndex, map));
+    }
+
+    @Override
+    public Object getObject(final String columnLabel, final Map<String, Class<?>> map) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnLabel, map));
+    }
+
+    @Override
+    public <T> T getObject(final int columnIndex, final Class<T> type) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnIndex, type));
+    }
+
+    @Override
+    public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
+        return call(classLoader, () -> delegate.getObject(columnLabel, type));
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return call(classLoader, delegate::getMetaData);
+    }
+
+    @Override
+    public Statement getStatement() {
+        return statement;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        run(classLoader, delegate::close);
+    }
+
+    private interface Contextual {
+
+        boolean next() throws SQLException;
+
+        Object getObject(int columnIndex) throws SQLException;
+
+        Object getObject(String columnLabel) throws SQLException;
+
+        Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException;
+
+        Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException;
+
+        <T> T getObject(int columnIndex, Class<T> type) throws SQLException;
+
+        <T> T getObject(String columnLabel, Class<T> type) throws SQLException;
+
+        ResultSetMetaData getMetaData() throws SQLException;
+
+        Statement getStatement() throws SQLException;
+
+        void close() throws SQLException;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import static org.talend.components.jdbc.service.ContextualCall.call;
+import static org.talend.components.jdbc.service.ContextualCall.run;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import lombok.experimental.Delegate;
+
+/**
+ * Statement of a {@link ContextualConnection}, executions switch the thread context classloader and their result sets are
+ * wrapped.
+ */
+public class ContextualStatement implements Statement {
+
+    @Delegate(excludes = Contextual.class)
+    private final Statement delegate;
+
+    private final Connection connection;
+
+    final ClassLoader classLoader;
+
+    ContextualStatement(final Statement delegate, final Connection connection, final ClassLoader classLoader) {
+        this.delegate = delegate;
+        this.connection = connection;
+        this.classLoader = classLoader;
+    }
+
+    ResultSet wrap(final ResultSet resultSet) {
+        return resultSet == null ? null : new ContextualResultSet(resultSet, this, classLoader);
+    }
+
+    @Override
+    public ResultSet executeQuery(final String sql) throws SQLException {
+        return wrap(call(classLoader, () -> delegate.executeQuery(sql)));
+    }
+
+    @Override
+    public int executeUpdate(final String sql) throws SQLException {
+        return call(classLoader, () -> delegate.executeUpdate(sql));
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return call(classLoader, () -> delegate.executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+        return call(classLoader, () -> delegate.executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+        return call(classLoader, () -> delegate.executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql) throws SQLException {
+        return call(classLoader, () -> delegate.executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return call(classLoader, () -> delegate.executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+        return call(classLoader, () -> delegate.executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final String[] columnNames) throws SQLException {
+        return call(classLoader, () -> delegate.executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(final String sql) throws SQLException {
+        return call(classLoader, () -> delegate.execute(sql));
+    }
+
+    @Override
+    public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return call(classLoader, () -> delegate.execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+        return call(classLoader, () -> delegate.execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+        return call(classLoader, () -> delegate.execute(sql, columnNames));
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return call(classLoader, delegate::executeBatch);
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return call(classLoader, delegate::executeLargeBatch);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return wrap(call(classLoader, delegate::getResultSet));
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return wrap(call(classLoader, delegate::getGeneratedKeys));
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        run(classLoader, delegate::close);
+    }
+
+    private interface Contextual {
+
+        ResultSet executeQuery(String sql) throws SQLException;
+
+        int executeUpdate(String sql) throws SQLException;
+
+        int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException;
+
+        int executeUpdate(String sql, int[] columnIndexes) throws SQLException;
+
+        int executeUpdate(String sql, String[] columnNames) throws SQLException;
+
+        long executeLargeUpdate(String sql) throws SQLException;
+
+        long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException;
+
+        long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException;
+
+        long executeLargeUpdate(String sql, String[] columnNames) throws SQLException;
+
+        boolean execute(String sql) throws SQLException;
+
+        boolean execute(String sql, int autoGeneratedKeys) throws SQLException;
+
+        boolean execute(String sql, int[] columnIndexes) throws SQLException;
+
+        boolean execute(String sql, String[] columnNames) throws SQLException;
+
+        int[] executeBatch() throws SQLException;
+
+        long[] executeLargeBatch() throws SQLException;
+
+        ResultSet getResultSet() throws SQLException;
+
+        ResultSet getGeneratedKeys() throws SQLException;
+
+        Connection getConnection() throws SQLException;
+
+        void close() throws SQLException;
+    }
+}
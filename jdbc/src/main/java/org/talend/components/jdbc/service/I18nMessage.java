@@ -77,6 +77,12 @@ public interface I18nMessage {
 
     String errorUnsupportedType(String type, String field);
 
+    String errorBulkLoadUnsupportedDriver(String driver);
+
+    String errorBulkLoadIncomplete(int loaded, int rows, String warning);
+
+    String errorPartitionColumnNotIntegral(String column, String type);
+
     //
     String actionOnDataInsert();
 
@@ -13,7 +13,10 @@
 package org.talend.components.jdbc.service;
 
 import com.zaxxer.hikari.HikariDataSource;
-import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.JdbcConfiguration;
 import org.talend.components.jdbc.datastore.JdbcConnection;
@@ -23,26 +26,36 @@ import org.talend.sdk.component.api.service.configuration.Configuration;
 import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
 import org.talend.sdk.component.api.service.dependency.Resolver;
 
+import javax.annotation.PreDestroy;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
+import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
 
@@ -54,7 +67,30 @@ public class JdbcService {
             "^SELECT\\s+((?!((\\bINTO\\b)|(\\bFOR\\s+UPDATE\\b)|(\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b))).)+$",
             Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE);
 
-    private final Map<JdbcConfiguration.Driver, URL[]> drivers = new HashMap<>();
+    /**
+     * Hikari doesn't accept an idle timeout under 10 seconds
+     */
+    private static final long MIN_HIKARI_IDLE_TIMEOUT = 10000;
+
+    /**
+     * Number of cached table metadata over which the expired ones are evicted
+     */
+    private static final int MAX_CACHED_TABLES = 1000;
+
+    /**
+     * driver classloaders by driver id in access order, guarded by the map itself
+     */
+    private final Map<String, DriverClassLoader> drivers = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong driverClassLoaderHits = new AtomicLong();
+
+    private final AtomicLong driverClassLoaderLoads = new AtomicLong();
+
+    private final ConcurrentMap<PoolKey, SharedPool> pools = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<TableKey, CompletableFuture<TableMetadata>> tables = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService evictor;
 
     @Service
     private Resolver resolver;
@@ -88,64 +124,445 @@ public class JdbcService {
                 .orElseThrow(() -> new IllegalStateException(i18n.errorDriverNotFound(dataStore.getDbType())));
     }
 
-    public static boolean checkTableExistence(final String tableName, final JdbcService.JdbcDatasource dataSource)
+    /**
+     * The table metadata are cached by connection settings and table name for the configured time to live, the outputs
+     * sharing a table check it once instead of each one querying the database catalog. Concurrent lookups of the same table
+     * wait for a single query, executed outside of the cache map so the lookups of the other tables are not blocked.
+     *
+     * @return the existence and the columns of the table
+     */
+    public TableMetadata getTableMetadata(final String tableName, final JdbcDatasource dataSource) throws SQLException {
+        final long ttl = TimeUnit.SECONDS.toMillis(jdbcConfiguration.get().getTableMetadataCacheTtl());
+        if (ttl <= 0) {
+            return loadTableMetadata(tableName, dataSource);
+        }
+        final TableKey key = new TableKey(dataSource.key.getJdbcUrl(), dataSource.key.getUserId(), tableName);
+        final long now = System.currentTimeMillis();
+        CompletableFuture<TableMetadata> cached = tables.get(key);
+        CompletableFuture<TableMetadata> loading = null;
+        while (cached == null || isExpired(cached, now, ttl)) {
+            final CompletableFuture<TableMetadata> next = new CompletableFuture<>();
+            if (cached == null ? tables.putIfAbsent(key, next) == null : tables.replace(key, cached, next)) {
+                cached = loading = next;
+            } else {
+                cached = tables.get(key);
+            }
+        }
+        if (loading != null) {
+            try {
+                loading.complete(loadTableMetadata(tableName, dataSource));
+            } catch (final SQLException | RuntimeException e) {
+                tables.remove(key, loading);
+                loading.completeExceptionally(e);
+            }
+        }
+        if (tables.size() > MAX_CACHED_TABLES) {
+            tables.values().removeIf(metadata -> isExpired(metadata, now, ttl));
+        }
+        try {
+            return cached.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return true when the metadata were loaded before the time to live or failed to load, false while loading
+     */
+    private static boolean isExpired(final CompletableFuture<TableMetadata> metadata, final long now, final long ttl) {
+        return metadata.isDone() && (metadata.isCompletedExceptionally() || now - metadata.join().loadedAt >= ttl);
+    }
+
+    /**
+     * Record a table created with the given columns, or forget it when it was created by someone else so its metadata are
+     * read again on the next lookup.
+     */
+    public void tableCreated(final String tableName, final JdbcDatasource dataSource, final List<String> columns) {
+        final TableKey key = new TableKey(dataSource.key.getJdbcUrl(), dataSource.key.getUserId(), tableName);
+        if (columns == null) {
+            tables.remove(key);
+        } else {
+            tables.put(key, CompletableFuture.completedFuture(new TableMetadata(true, columns, System.currentTimeMillis())));
+        }
+    }
+
+    private static TableMetadata loadTableMetadata(final String tableName, final JdbcDatasource dataSource)
             throws SQLException {
         try (final Connection connection = dataSource.getConnection()) {
-            try (final ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
-                    tableName, new String[] { "TABLE", "SYNONYM" })) {
+            if (!checkTableExistence(tableName, connection)) {
+                return new TableMetadata(false, emptyList(), System.currentTimeMillis());
+            }
+            final List<String> columns = new ArrayList<>();
+            try (final ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(),
+                    connection.getSchema(), tableName, null)) {
                 while (resultSet.next()) {
-                    if (ofNullable(ofNullable(resultSet.getString("TABLE_NAME")).orElseGet(() -> {
-                        try {
-                            return resultSet.getString("SYNONYM_NAME");
-                        } catch (final SQLException e) {
-                            return null;
-                        }
-                    })).filter(tableName::equals).isPresent()) {
-                        return true;
+                    columns.add(resultSet.getString("COLUMN_NAME"));
+                }
+            }
+            return new TableMetadata(true, columns, System.currentTimeMillis());
+        }
+    }
+
+    public static boolean checkTableExistence(final String tableName, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException {
+        try (final Connection connection = dataSource.getConnection()) {
+            return checkTableExistence(tableName, connection);
+        }
+    }
+
+    private static boolean checkTableExistence(final String tableName, final Connection connection) throws SQLException {
+        try (final ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
+                tableName, new String[] { "TABLE", "SYNONYM" })) {
+            while (resultSet.next()) {
+                if (ofNullable(ofNullable(resultSet.getString("TABLE_NAME")).orElseGet(() -> {
+                    try {
+                        return resultSet.getString("SYNONYM_NAME");
+                    } catch (final SQLException e) {
+                        return null;
                     }
+                })).filter(tableName::equals).isPresent()) {
+                    return true;
                 }
-                return false;
             }
+            return false;
         }
     }
 
     public JdbcDatasource createDataSource(final JdbcConnection connection) {
-        final JdbcConfiguration.Driver driver = getDriver(connection);
-        return new JdbcDatasource(i18n, resolver, connection, driver, false, false);
+        return createDataSource(connection, false);
     }
 
+    /**
+     * The data sources are leases on a connection pool shared by all the components using the same connection settings.
+     * The pool holds at most the configured max size of connections whatever its number of leases, the components using
+     * several connections size their concurrency within it, see {@link JdbcDatasource#getMaxConnections()}. The pool is
+     * closed when it has not been leased for the configured idle timeout.
+     */
     public JdbcDatasource createDataSource(final JdbcConnection connection, final boolean rewriteBatchedStatements) {
         final JdbcConfiguration.Driver driver = getDriver(connection);
-        return new JdbcDatasource(i18n, resolver, connection, driver, false, rewriteBatchedStatements);
+        final PoolKey key = new PoolKey(driver.getId(), connection.getDbType(), connection.getHandler(),
+                connection.getJdbcUrl(), connection.getUserId(), connection.getPassword(), connection.getConnectionTimeOut(),
+                connection.getConnectionValidationTimeOut(), false, rewriteBatchedStatements);
+        final JdbcConfiguration configuration = jdbcConfiguration.get();
+        final SharedPool pool = pools.compute(key, (k, shared) -> {
+            final SharedPool leased = shared != null ? shared
+                    : new SharedPool(k, newPooledDataSource(connection, driver, k, configuration));
+            leased.references++;
+            return leased;
+        });
+        scheduleEviction(configuration.getPoolIdleTimeout());
+        return new JdbcDatasource(key, pool.dataSource, () -> release(pool, configuration.getPoolIdleTimeout()));
+    }
+
+    private PooledDataSource newPooledDataSource(final JdbcConnection connection, final JdbcConfiguration.Driver driver,
+            final PoolKey key, final JdbcConfiguration configuration) {
+        final DriverClassLoader classLoader = acquireClassLoader(driver, configuration.getDriverCacheMaxSize());
+        try {
+            return new PooledDataSource(i18n, classLoader.descriptor.asClassLoader(),
+                    () -> releaseClassLoader(classLoader, configuration.getDriverCacheMaxSize()), connection, driver,
+                    key.isAutoCommit(), key.isRewriteBatchedStatements(), configuration.getPoolMaxSize(),
+                    configuration.getPoolIdleTimeout());
+        } catch (final RuntimeException e) {
+            releaseClassLoader(classLoader, configuration.getDriverCacheMaxSize());
+            throw e;
+        }
+    }
+
+    /**
+     * The driver classloaders are cached by driver id and shared by the connection pools. The unused ones are kept until
+     * the cache exceeds its max size, the least recently used are closed first.
+     */
+    private DriverClassLoader acquireClassLoader(final JdbcConfiguration.Driver driver, final int maxSize) {
+        synchronized (drivers) {
+            final DriverClassLoader cached = drivers.get(driver.getId());
+            if (cached != null) {
+                driverClassLoaderHits.incrementAndGet();
+                cached.references++;
+                return cached;
+            }
+
+            final Resolver.ClassLoaderDescriptor descriptor = resolver.mapDescriptorToClassLoader(driver.getPaths());
+            if (!descriptor.resolvedDependencies().containsAll(driver.getPaths())) {
+                final String missingJars = driver.getPaths().stream().filter(p -> !descriptor.resolvedDependencies().contains(p))
+                        .collect(joining("\n"));
+                closeClassLoader(driver.getId(), descriptor);
+                throw new IllegalStateException(i18n.errorDriverLoad(driver.getId(), missingJars));
+            }
+            driverClassLoaderLoads.incrementAndGet();
+            log.debug("driver {} loaded, {} driver classloader(s) loaded and {} reused so far", driver.getId(),
+                    driverClassLoaderLoads.get(), driverClassLoaderHits.get());
+            final DriverClassLoader loaded = new DriverClassLoader(driver.getId(), descriptor);
+            loaded.references++;
+            drivers.put(driver.getId(), loaded);
+            evictUnusedClassLoaders(maxSize);
+            return loaded;
+        }
+    }
+
+    private void releaseClassLoader(final DriverClassLoader classLoader, final int maxSize) {
+        synchronized (drivers) {
+            classLoader.references--;
+            if (drivers.get(classLoader.driverId) != classLoader && classLoader.references <= 0) {
+                // already evicted from the cache
+                closeClassLoader(classLoader.driverId, classLoader.descriptor);
+                return;
+            }
+            evictUnusedClassLoaders(maxSize);
+        }
+    }
+
+    private void evictUnusedClassLoaders(final int maxSize) {
+        final Iterator<DriverClassLoader> iterator = drivers.values().iterator();
+        while (drivers.size() > Math.max(0, maxSize) && iterator.hasNext()) {
+            final DriverClassLoader classLoader = iterator.next();
+            if (classLoader.references <= 0) {
+                iterator.remove();
+                closeClassLoader(classLoader.driverId, classLoader.descriptor);
+            }
+        }
+    }
+
+    private static void closeClassLoader(final String driverId, final Resolver.ClassLoaderDescriptor descriptor) {
+        try {
+            descriptor.close();
+        } catch (final Exception e) {
+            log.error("can't close driver classloader of " + driverId + " properly", e);
+        }
+    }
+
+    /**
+     * @return the number of data sources which reused an already loaded driver classloader
+     */
+    public long getDriverClassLoaderHits() {
+        return driverClassLoaderHits.get();
+    }
+
+    /**
+     * @return the number of driver classloaders loaded
+     */
+    public long getDriverClassLoaderLoads() {
+        return driverClassLoaderLoads.get();
+    }
+
+    private void release(final SharedPool pool, final int idleTimeout) {
+        final AtomicBoolean closePool = new AtomicBoolean(false);
+        pools.computeIfPresent(pool.key, (k, shared) -> {
+            if (shared != pool) {
+                return shared;
+            }
+            shared.references--;
+            shared.idleSince = System.currentTimeMillis();
+            if (shared.references <= 0 && idleTimeout <= 0) {
+                closePool.set(true);
+                return null;
+            }
+            return shared;
+        });
+        if (closePool.get()) {
+            pool.dataSource.close();
+        }
+    }
+
+    private synchronized void scheduleEviction(final int idleTimeout) {
+        if (evictor != null || idleTimeout <= 0) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "jdbc-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(1, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(() -> evictIdlePools(TimeUnit.SECONDS.toMillis(idleTimeout)), period, period,
+                TimeUnit.SECONDS);
     }
 
+    private void evictIdlePools(final long idleTimeoutMillis) {
+        final long now = System.currentTimeMillis();
+        pools.keySet().forEach(key -> {
+            final AtomicReference<SharedPool> evicted = new AtomicReference<>();
+            pools.computeIfPresent(key, (k, shared) -> {
+                if (shared.references <= 0 && now - shared.idleSince >= idleTimeoutMillis) {
+                    evicted.set(shared);
+                    return null;
+                }
+                return shared;
+            });
+            ofNullable(evicted.get()).ifPresent(pool -> {
+                log.debug("closing idle connection pool of {}", pool.key);
+                pool.dataSource.close();
+            });
+        });
+    }
+
+    @PreDestroy
+    public void release() {
+        synchronized (this) {
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        pools.keySet().forEach(key -> ofNullable(pools.remove(key)).ifPresent(pool -> pool.dataSource.close()));
+        synchronized (drivers) {
+            drivers.values().forEach(classLoader -> closeClassLoader(classLoader.driverId, classLoader.descriptor));
+            drivers.clear();
+        }
+    }
+
+    @Data
+    @ToString(exclude = "password")
+    private static class PoolKey {
+
+        private final String driverId;
+
+        private final String dbType;
+
+        private final String handler;
+
+        private final String jdbcUrl;
+
+        private final String userId;
+
+        private final String password;
+
+        private final long connectionTimeOut;
+
+        private final long connectionValidationTimeOut;
+
+        private final boolean autoCommit;
+
+        private final boolean rewriteBatchedStatements;
+    }
+
+    @Data
+    private static class TableKey {
+
+        private final String jdbcUrl;
+
+        private final String userId;
+
+        private final String tableName;
+    }
+
+    /**
+     * Metadata of a table, as read from the database catalog
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class TableMetadata {
+
+        private final boolean exists;
+
+        private final List<String> columns;
+
+        private final long loadedAt;
+    }
+
+    @RequiredArgsConstructor
+    private static class SharedPool {
+
+        private final PoolKey key;
+
+        private final PooledDataSource dataSource;
+
+        /**
+         * only accessed in the map compute functions
+         */
+        private int references;
+
+        private long idleSince;
+    }
+
+    @RequiredArgsConstructor
+    private static class DriverClassLoader {
+
+        private final String driverId;
+
+        private final Resolver.ClassLoaderDescriptor descriptor;
+
+        /**
+         * guarded by the drivers cache
+         */
+        private int references;
+    }
+
+    /**
+     * A lease on a shared connection pool, closing it releases the lease and not the pool.
+     */
     public static class JdbcDatasource implements AutoCloseable {
 
-        private final Resolver.ClassLoaderDescriptor classLoaderDescriptor;
+        private final PoolKey key;
 
-        private HikariDataSource dataSource;
+        private final PooledDataSource dataSource;
 
-        JdbcDatasource(final I18nMessage i18nMessage, final Resolver resolver, final JdbcConnection connection,
-                final JdbcConfiguration.Driver driver, final boolean isAutoCommit, final boolean rewriteBatchedStatements) {
-            final Thread thread = Thread.currentThread();
-            final ClassLoader prev = thread.getContextClassLoader();
+        private final Runnable onClose;
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        JdbcDatasource(final PoolKey key, final PooledDataSource dataSource, final Runnable onClose) {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.onClose = onClose;
+        }
+
+        public Connection getConnection() throws SQLException {
+            if (closed.get()) {
+                throw new SQLException("data source is closed");
+            }
+            return dataSource.getConnection();
+        }
 
-            classLoaderDescriptor = resolver.mapDescriptorToClassLoader(driver.getPaths());
-            String missingJars = driver.getPaths().stream().filter(p -> classLoaderDescriptor.resolvedDependencies().contains(p))
-                    .collect(joining("\n"));
-            if (!classLoaderDescriptor.resolvedDependencies().containsAll(driver.getPaths())) {
-                throw new IllegalStateException(i18nMessage.errorDriverLoad(driver.getId(), missingJars));
+        /**
+         * @return the maximum number of connections of the shared pool, whatever the number of its leases
+         */
+        public int getMaxConnections() {
+            return dataSource.maxConnections;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                onClose.run();
             }
+        }
+    }
+
+    private static class PooledDataSource {
+
+        private final ClassLoader classLoader;
+
+        private final Runnable releaseClassLoader;
+
+        private final int maxConnections;
+
+        private HikariDataSource dataSource;
 
+        PooledDataSource(final I18nMessage i18nMessage, final ClassLoader classLoader, final Runnable releaseClassLoader,
+                final JdbcConnection connection, final JdbcConfiguration.Driver driver, final boolean isAutoCommit,
+                final boolean rewriteBatchedStatements, final int maxPoolSize, final int idleTimeout) {
+            this.classLoader = classLoader;
+            this.releaseClassLoader = releaseClassLoader;
+            this.maxConnections = Math.max(1, maxPoolSize);
+            final Thread thread = Thread.currentThread();
+            final ClassLoader prev = thread.getContextClassLoader();
             try {
-                thread.setContextClassLoader(classLoaderDescriptor.asClassLoader());
+                thread.setContextClassLoader(classLoader);
                 dataSource = new HikariDataSource();
                 dataSource.setUsername(connection.getUserId());
                 dataSource.setPassword(connection.getPassword());
                 dataSource.setDriverClassName(driver.getClassName());
                 dataSource.setJdbcUrl(connection.getJdbcUrl());
                 dataSource.setAutoCommit(isAutoCommit);
-                dataSource.setMaximumPoolSize(1);
+                dataSource.setMaximumPoolSize(maxConnections);
+                // connections are opened on demand and closed when unused
+                dataSource.setMinimumIdle(0);
+                if (idleTimeout > 0) {
+                    dataSource.setIdleTimeout(Math.max(MIN_HIKARI_IDLE_TIMEOUT, TimeUnit.SECONDS.toMillis(idleTimeout)));
+                }
                 dataSource.setConnectionTimeout(connection.getConnectionTimeOut() * 1000);
                 dataSource.setValidationTimeout(connection.getConnectionValidationTimeOut() * 1000);
                 PlatformFactory.get(connection, i18nMessage).addDataSourceProperties(dataSource);
@@ -159,62 +576,26 @@ public class JdbcService {
             }
         }
 
-        public Connection getConnection() throws SQLException {
+        Connection getConnection() throws SQLException {
             final Thread thread = Thread.currentThread();
             final ClassLoader prev = thread.getContextClassLoader();
             try {
-                thread.setContextClassLoader(classLoaderDescriptor.asClassLoader());
-                return wrap(classLoaderDescriptor.asClassLoader(), dataSource.getConnection(), Connection.class);
+                thread.setContextClassLoader(classLoader);
+                return new ContextualConnection(dataSource.getConnection(), classLoader);
             } finally {
                 thread.setContextClassLoader(prev);
             }
         }
 
-        @Override
-        public void close() {
+        void close() {
             final Thread thread = Thread.currentThread();
             final ClassLoader prev = thread.getContextClassLoader();
             try {
-                thread.setContextClassLoader(classLoaderDescriptor.asClassLoader());
+                thread.setContextClassLoader(classLoader);
                 dataSource.close();
             } finally {
                 thread.setContextClassLoader(prev);
-                try {
-                    classLoaderDescriptor.close();
-                } catch (final Exception e) {
-                    log.error("can't close driver classloader properly", e);
-                }
-            }
-        }
-
-        private static <T> T wrap(final ClassLoader classLoader, final Object delegate, final Class<T> api) {
-            return api.cast(
-                    Proxy.newProxyInstance(classLoader, new Class<?>[] { api }, new ContextualDelegate(delegate, classLoader)));
-        }
-
-        @AllArgsConstructor
-        private static class ContextualDelegate implements InvocationHandler {
-
-            private final Object delegate;
-
-            private final ClassLoader classLoader;
-
-            @Override
-            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                final Thread thread = Thread.currentThread();
-                final ClassLoader prev = thread.getContextClassLoader();
-                thread.setContextClassLoader(classLoader);
-                try {
-                    final Object invoked = method.invoke(delegate, args);
-                    if (method.getReturnType().getName().startsWith("java.sql.") && method.getReturnType().isInterface()) {
-                        return wrap(classLoader, invoked, method.getReturnType());
-                    }
-                    return invoked;
-                } catch (final InvocationTargetException ite) {
-                    throw ite.getTargetException();
-                } finally {
-                    thread.setContextClassLoader(prev);
-                }
+                releaseClassLoader.run();
             }
         }
     }
@@ -93,9 +93,8 @@ public class UIActionService {
                     .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
         }
 
-        return new SuggestionValues(true,
-                Stream.of(OutputConfig.ActionOnData.values()).filter(e -> !OutputConfig.ActionOnData.BULK_LOAD.equals(e))
-                        .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
+        return new SuggestionValues(true, Stream.of(OutputConfig.ActionOnData.values())
+                .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
     }
 
     @Suggestions(ACTION_LIST_HANDLERS_DB)
@@ -132,7 +131,8 @@ public class UIActionService {
 
     @Suggestions(ACTION_SUGGESTION_TABLE_COLUMNS_NAMES)
     public SuggestionValues getTableColumns(@Option final TableNameDataset dataset) {
-        try (Connection conn = jdbcService.createDataSource(dataset.getConnection()).getConnection()) {
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(dataset.getConnection());
+                final Connection conn = dataSource.getConnection()) {
             try (final Statement statement = conn.createStatement()) {
                 statement.setMaxRows(1);
                 try (final ResultSet result = statement.executeQuery(dataset.getQuery())) {
@@ -160,7 +160,8 @@ public class UIActionService {
     @Suggestions(ACTION_SUGGESTION_TABLE_NAMES)
     public SuggestionValues getTableFromDatabase(@Option final JdbcConnection datastore) {
         final Collection<SuggestionValues.Item> items = new HashSet<>();
-        try (Connection connection = jdbcService.createDataSource(datastore).getConnection()) {
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(datastore);
+                final Connection connection = dataSource.getConnection()) {
             final DatabaseMetaData dbMetaData = connection.getMetaData();
             try (ResultSet tables = dbMetaData.getTables(connection.getCatalog(), connection.getSchema(), null,
                     getAvailableTableTypes(dbMetaData).toArray(new String[0]))) {
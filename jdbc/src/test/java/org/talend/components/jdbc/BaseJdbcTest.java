@@ -84,7 +84,8 @@ public abstract class BaseJdbcTest {
         final String testTable = getTestTableName(testInfo);
         final JdbcConnection datastore = newConnection(container);
         final Platform platform = PlatformFactory.get(datastore, i18nMessage);
-        try (final Connection connection = jdbcService.createDataSource(datastore).getConnection()) {
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(datastore);
+                final Connection connection = dataSource.getConnection()) {
             try (final PreparedStatement stm = connection.prepareStatement("DROP TABLE " + platform.identifier(testTable))) {
                 stm.executeUpdate();
                 connection.commit();
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.jdbc.service.ContextualConnection;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Per row cost of reading a result set and per parameter cost of binding a prepared statement through the connection
+ * wrappers, compared with the former reflective proxy. Both switch to a dedicated driver classloader like the datasource does.
+ * <p>
+ * Run it from the test classpath with the main method or with <code>org.openjdk.jmh.Main ConnectionWrapperBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionWrapperBenchmark {
+
+    private static final String TABLE = "BENCH_WRAPPER";
+
+    private static final int ROWS = 1000;
+
+    private static final int COLUMNS = 10;
+
+    @Param({ "proxy", "wrapper" })
+    private String mode;
+
+    private Connection raw;
+
+    private URLClassLoader driverClassLoader;
+
+    private Connection connection;
+
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        raw = DriverManager.getConnection("jdbc:derby:memory:wrapper;create=true");
+        raw.setAutoCommit(false);
+        try (final Statement statement = raw.createStatement()) {
+            final StringBuilder columns = new StringBuilder();
+            for (int i = 0; i < COLUMNS; i++) {
+                columns.append(i == 0 ? "" : ", ").append("c").append(i).append(" INTEGER");
+            }
+            statement.executeUpdate("CREATE TABLE " + TABLE + "(" + columns + ")");
+        }
+        driverClassLoader = new URLClassLoader(new URL[0], Thread.currentThread().getContextClassLoader());
+        connection = "proxy".equals(mode) ? wrap(driverClassLoader, raw, Connection.class)
+                : new ContextualConnection(raw, driverClassLoader);
+
+        final StringBuilder values = new StringBuilder();
+        for (int i = 0; i < COLUMNS; i++) {
+            values.append(i == 0 ? "?" : ", ?");
+        }
+        insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES(" + values + ")");
+        for (int row = 0; row < ROWS; row++) {
+            for (int i = 1; i <= COLUMNS; i++) {
+                insert.setInt(i, row);
+            }
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        insert.close();
+        try (final Statement statement = raw.createStatement()) {
+            statement.executeUpdate("DROP TABLE " + TABLE);
+        }
+        raw.commit();
+        raw.close();
+        driverClassLoader.close();
+    }
+
+    /**
+     * Read the whole table, the score divided by the number of rows is the per row cost.
+     */
+    @Benchmark
+    public void readRows(final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT * FROM " + TABLE)) {
+            while (resultSet.next()) {
+                for (int i = 1; i <= COLUMNS; i++) {
+                    blackhole.consume(resultSet.getInt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bind the parameters of one row, the score divided by the number of columns is the per parameter cost.
+     */
+    @Benchmark
+    public void bindParameters() throws SQLException {
+        for (int i = 1; i <= COLUMNS; i++) {
+            insert.setInt(i, i);
+        }
+        insert.clearParameters();
+    }
+
+    /**
+     * Former datasource wrapping: every java.sql call goes through the proxy and switches the context classloader.
+     */
+    private static <T> T wrap(final ClassLoader classLoader, final Object delegate, final Class<T> api) {
+        return api.cast(
+                Proxy.newProxyInstance(classLoader, new Class<?>[] { api }, new ContextualDelegate(delegate, classLoader)));
+    }
+
+    @AllArgsConstructor
+    private static class ContextualDelegate implements InvocationHandler {
+
+        private final Object delegate;
+
+        private final ClassLoader classLoader;
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader prev = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            try {
+                final Object invoked = method.invoke(delegate, args);
+                if (method.getReturnType().getName().startsWith("java.sql.") && method.getReturnType().isInterface()) {
+                    return wrap(classLoader, invoked, method.getReturnType());
+                }
+                return invoked;
+            } catch (final InvocationTargetException ite) {
+                throw ite.getTargetException();
+            } finally {
+                thread.setContextClassLoader(prev);
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConnectionWrapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
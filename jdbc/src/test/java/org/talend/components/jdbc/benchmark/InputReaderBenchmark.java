@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.benchmark;
+
+import static java.sql.ResultSetMetaData.columnNoNulls;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
+import static org.talend.sdk.component.api.record.Schema.Type.INT;
+import static org.talend.sdk.component.api.record.Schema.Type.LONG;
+import static org.talend.sdk.component.api.record.Schema.Type.RECORD;
+import static org.talend.sdk.component.api.record.Schema.Type.STRING;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.jdbc.input.ResultSetReader;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the per row cost of the compiled {@link ResultSetReader} with the former per cell metadata lookup, reading a wide
+ * table of an embedded derby database.
+ * <p>
+ * Run it from the test classpath with the main method or with <code>org.openjdk.jmh.Main InputReaderBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputReaderBenchmark {
+
+    private static final String TABLE = "BENCH_INPUT";
+
+    @Param({ "10", "50" })
+    private int columnGroups;
+
+    private final int rows = 2000;
+
+    private Connection connection;
+
+    private RecordBuilderFactory recordBuilderFactory;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        recordBuilderFactory = new RecordBuilderFactoryImpl("benchmark");
+        connection = DriverManager.getConnection("jdbc:derby:memory:benchmark;create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + TABLE + "("
+                    + IntStream.range(0, columnGroups)
+                            .mapToObj(i -> "i" + i + " INTEGER, l" + i + " BIGINT, d" + i + " DOUBLE, s" + i + " VARCHAR(64), t" + i
+                                    + " TIMESTAMP")
+                            .reduce((a, b) -> a + ", " + b).orElse("")
+                    + ")");
+        }
+        final String insert = "INSERT INTO " + TABLE + " VALUES("
+                + IntStream.range(0, columnGroups * 5).mapToObj(i -> "?").reduce((a, b) -> a + ", " + b).orElse("") + ")";
+        try (final PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (int row = 0; row < rows; row++) {
+                int index = 1;
+                for (int i = 0; i < columnGroups; i++) {
+                    statement.setInt(index++, row);
+                    statement.setLong(index++, row * 1000L);
+                    statement.setDouble(index++, row / 3d);
+                    statement.setString(index++, "value " + row);
+                    statement.setTimestamp(index++, new Timestamp(row * 1000L));
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void compiledReader(final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT * FROM " + TABLE)) {
+            ResultSetReader reader = null;
+            while (resultSet.next()) {
+                if (reader == null) {
+                    reader = new ResultSetReader(resultSet.getMetaData(), recordBuilderFactory);
+                }
+                blackhole.consume(reader.read(resultSet));
+            }
+        }
+    }
+
+    @Benchmark
+    public void perCellMetadata(final Blackhole blackhole) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT * FROM " + TABLE)) {
+            Schema schema = null;
+            while (resultSet.next()) {
+                final ResultSetMetaData metaData = resultSet.getMetaData();
+                if (schema == null) {
+                    final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
+                    IntStream.rangeClosed(1, metaData.getColumnCount())
+                            .forEach(index -> schemaBuilder.withEntry(legacyEntry(metaData, index)));
+                    schema = schemaBuilder.build();
+                }
+                final Record.Builder builder = recordBuilderFactory.newRecordBuilder(schema);
+                IntStream.rangeClosed(1, metaData.getColumnCount())
+                        .forEach(index -> legacyColumn(builder, resultSet, metaData, index));
+                blackhole.consume(builder.build());
+            }
+        }
+    }
+
+    /**
+     * Former input path: the metadata is read and the entry is built for each cell.
+     */
+    private Schema.Entry legacyEntry(final ResultSetMetaData metaData, final int columnIndex) {
+        try {
+            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder()
+                    .withName(metaData.getColumnName(columnIndex))
+                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
+            switch (metaData.getColumnType(columnIndex)) {
+            case Types.INTEGER:
+                return metaData.getColumnClassName(columnIndex).equals(Integer.class.getName())
+                        ? entryBuilder.withType(INT).build()
+                        : entryBuilder.withType(LONG).build();
+            case Types.DOUBLE:
+                return entryBuilder.withType(DOUBLE).build();
+            case Types.TIMESTAMP:
+                return entryBuilder.withType(DATETIME).build();
+            default:
+                return entryBuilder.withType(STRING).build();
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void legacyColumn(final Record.Builder builder, final ResultSet resultSet, final ResultSetMetaData metaData,
+            final int columnIndex) {
+        try {
+            final String javaType = metaData.getColumnClassName(columnIndex);
+            final int sqlType = metaData.getColumnType(columnIndex);
+            final Object value = resultSet.getObject(columnIndex);
+            final Schema.Entry entry = legacyEntry(metaData, columnIndex);
+            switch (sqlType) {
+            case Types.INTEGER:
+                if (value != null) {
+                    if (javaType.equals(Integer.class.getName())) {
+                        builder.withInt(entry, (Integer) value);
+                    } else {
+                        builder.withLong(entry, (Long) value);
+                    }
+                }
+                break;
+            case Types.DOUBLE:
+                if (value != null) {
+                    builder.withDouble(entry, (Double) value);
+                }
+                break;
+            case Types.TIMESTAMP:
+                builder.withDateTime(entry, value == null ? null : new Date(((Timestamp) value).getTime()));
+                break;
+            default:
+                builder.withString(entry, value == null ? null : String.valueOf(value));
+                break;
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InputReaderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.benchmark;
+
+import static java.util.Locale.ROOT;
+import static org.talend.sdk.component.api.record.Schema.Type.DATETIME;
+import static org.talend.sdk.component.api.record.Schema.Type.DOUBLE;
+import static org.talend.sdk.component.api.record.Schema.Type.INT;
+import static org.talend.sdk.component.api.record.Schema.Type.LONG;
+import static org.talend.sdk.component.api.record.Schema.Type.STRING;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.jdbc.output.statement.ParameterBinder;
+import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+/**
+ * Compare the cost of binding a million cells in a prepared statement of an embedded derby database with the
+ * {@link ParameterBinder} and with the former parameters map, resolving the converter by name for each cell.
+ * The score is the time spent per million cells.
+ * <p>
+ * Run it from the test classpath with the main method or with <code>org.openjdk.jmh.Main ParameterBinderBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBinderBenchmark {
+
+    private static final String TABLE = "BENCH_BINDER";
+
+    private static final int CELLS = 1_000_000;
+
+    @Param({ "2", "20" })
+    private int columnGroups;
+
+    private Connection connection;
+
+    private PreparedStatement insert;
+
+    private List<Record> records;
+
+    private Map<Integer, Schema.Entry> params;
+
+    private ParameterBinder binder;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        final RecordBuilderFactory recordBuilderFactory = new RecordBuilderFactoryImpl("benchmark");
+        final Schema.Type[] types = { INT, LONG, DOUBLE, STRING, DATETIME };
+        params = new HashMap<>();
+        for (int i = 0; i < columnGroups; i++) {
+            for (final Schema.Type type : types) {
+                params.put(params.size() + 1, recordBuilderFactory.newEntryBuilder().withName(type.name().toLowerCase(ROOT) + i)
+                        .withType(type).withNullable(true).build());
+            }
+        }
+        binder = ParameterBinder.of(params);
+
+        final int rows = CELLS / params.size();
+        records = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            final Record.Builder builder = recordBuilderFactory.newRecordBuilder();
+            for (int i = 1; i <= params.size(); i++) {
+                final Schema.Entry entry = params.get(i);
+                switch (entry.getType()) {
+                case INT:
+                    builder.withInt(entry, row);
+                    break;
+                case LONG:
+                    builder.withLong(entry, row * 1000L);
+                    break;
+                case DOUBLE:
+                    builder.withDouble(entry, row / 3d);
+                    break;
+                case STRING:
+                    builder.withString(entry, "value " + row);
+                    break;
+                default:
+                    builder.withDateTime(entry, ZonedDateTime.now());
+                }
+            }
+            records.add(builder.build());
+        }
+
+        connection = DriverManager.getConnection("jdbc:derby:memory:binder;create=true");
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + TABLE + "("
+                    + IntStream.range(0, columnGroups)
+                            .mapToObj(i -> "int" + i + " INTEGER, long" + i + " BIGINT, double" + i + " DOUBLE, string" + i
+                                    + " VARCHAR(64), datetime" + i + " TIMESTAMP")
+                            .reduce((a, b) -> a + ", " + b).orElse("")
+                    + ")");
+        }
+        insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES("
+                + IntStream.range(0, params.size()).mapToObj(i -> "?").reduce((a, b) -> a + ", " + b).orElse("") + ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void parameterBinder() throws SQLException {
+        for (final Record record : records) {
+            insert.clearParameters();
+            binder.bind(insert, 0, record);
+        }
+    }
+
+    @Benchmark
+    public void parametersMap() throws SQLException {
+        for (final Record record : records) {
+            insert.clearParameters();
+            for (final Map.Entry<Integer, Schema.Entry> entry : params.entrySet()) {
+                legacySetValue(RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()), insert, entry.getKey(),
+                        entry.getValue(), record);
+            }
+        }
+    }
+
+    /**
+     * Former converters: the value is looked up once to test its presence and once again to be bound.
+     */
+    private static void legacySetValue(final RecordToSQLTypeConverter converter, final PreparedStatement statement,
+            final int index, final Schema.Entry entry, final Record record) throws SQLException {
+        switch (converter) {
+        case INT:
+            if (record.getOptionalInt(entry.getName()).isPresent()) {
+                statement.setInt(index, record.getInt(entry.getName()));
+            } else {
+                statement.setNull(index, Types.INTEGER);
+            }
+            break;
+        case LONG:
+            if (record.getOptionalLong(entry.getName()).isPresent()) {
+                statement.setLong(index, record.getLong(entry.getName()));
+            } else {
+                statement.setNull(index, Types.BIGINT);
+            }
+            break;
+        case DOUBLE:
+            if (record.getOptionalDouble(entry.getName()).isPresent()) {
+                statement.setDouble(index, record.getDouble(entry.getName()));
+            } else {
+                statement.setNull(index, Types.DOUBLE);
+            }
+            break;
+        case DATETIME:
+            statement.setTimestamp(index, record.getOptionalDateTime(entry.getName())
+                    .map(d -> new Timestamp(d.toInstant().toEpochMilli())).orElse(null));
+            break;
+        default:
+            converter.setValue(statement, index, entry, record);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParameterBinderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
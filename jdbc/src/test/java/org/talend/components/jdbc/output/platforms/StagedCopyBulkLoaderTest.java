@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.platforms;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.runtime.record.RecordBuilderFactoryImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Staged copy bulk loader")
+class StagedCopyBulkLoaderTest {
+
+    private final RecordBuilderFactory factory = new RecordBuilderFactoryImpl("test");
+
+    private final List<Schema.Entry> columns = Stream
+            .of(factory.newEntryBuilder().withName("id").withType(Schema.Type.INT).build(),
+                    factory.newEntryBuilder().withName("name").withType(Schema.Type.STRING).withNullable(true).build())
+            .collect(toList());
+
+    private Path storeDir;
+
+    private LocalObjectStore store;
+
+    private Connection connection;
+
+    @BeforeEach
+    void init() throws IOException, SQLException {
+        storeDir = Files.createTempDirectory("object-store");
+        store = new LocalObjectStore(storeDir);
+        connection = new EmbeddedDriver().connect("jdbc:derby:memory:staged;create=true", new Properties());
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE STAGED(ID INTEGER, NAME VARCHAR(64))");
+        }
+    }
+
+    @AfterEach
+    void clean() throws IOException, SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE STAGED");
+        } finally {
+            connection.close();
+            try (final Stream<Path> files = Files.walk(storeDir)) {
+                for (final Path file : files.sorted(Comparator.reverseOrder()).collect(toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The records are staged in the object store, copied in the table and unstaged")
+    void load() throws SQLException, IOException {
+        final List<Record> records = Stream
+                .of(factory.newRecordBuilder().withInt("id", 1).withString("name", "first").build(),
+                        factory.newRecordBuilder().withInt("id", 2).withString("name", "with \"quotes\", and comma")
+                                .build(),
+                        factory.newRecordBuilder().withInt("id", 3).build())
+                .collect(toList());
+        new DerbyImportBulkLoader(new DerbyPlatform(null), store).load(connection, "staged", columns, records);
+
+        assertEquals(1, store.puts);
+        try (final Stream<Path> staged = Files.walk(storeDir)) {
+            assertFalse(staged.anyMatch(Files::isRegularFile), "the staged file is deleted");
+        }
+        try (final Statement statement = connection.createStatement();
+                final ResultSet result = statement.executeQuery("SELECT ID, NAME FROM STAGED ORDER BY ID")) {
+            assertTrue(result.next());
+            assertEquals("first", result.getString(2));
+            assertTrue(result.next());
+            assertEquals("with \"quotes\", and comma", result.getString(2));
+            assertTrue(result.next());
+            assertEquals(3, result.getInt(1));
+            assertNull(result.getString(2));
+            assertFalse(result.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Redshift copies the staged file with the authorization of the store")
+    void redshiftCopyQuery() {
+        final RedshiftCopyBulkLoader loader = new RedshiftCopyBulkLoader(new RedshiftPlatform(null), store);
+        assertEquals("COPY \"staged\"(\"id\",\"name\") FROM 's3://bucket/staged/a.csv' IAM_ROLE 'arn:aws:iam::0:role/test' "
+                + "CSV TIMEFORMAT 'auto'", loader.copyQuery("staged", columns, "s3://bucket/staged/a.csv"));
+    }
+
+    @Test
+    @DisplayName("Redshift bulk loads are multi rows inserts without object store")
+    void redshiftWithoutObjectStore() {
+        assertFalse(new RedshiftPlatform(null).bulkLoader().isPresent());
+    }
+
+    /**
+     * Copy the staged file with the import procedure of Derby, which reads the store files
+     */
+    private static class DerbyImportBulkLoader extends StagedCopyBulkLoader {
+
+        private DerbyImportBulkLoader(final Platform platform, final ObjectStore store) {
+            super(platform, store);
+        }
+
+        @Override
+        protected String nullValue() {
+            return "";
+        }
+
+        @Override
+        protected String bytes(final byte[] value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected String bool(final boolean value) {
+            return String.valueOf(value);
+        }
+
+        @Override
+        protected String copyQuery(final String table, final List<Schema.Entry> columns, final String location) {
+            return "CALL SYSCS_UTIL.SYSCS_IMPORT_DATA(null, '" + table.toUpperCase(ROOT) + "', '"
+                    + columns.stream().map(c -> c.getName().toUpperCase(ROOT)).collect(joining(",")) + "', null, '"
+                    + location + "', null, null, 'UTF-8', 0)";
+        }
+    }
+
+    /**
+     * Object store stand-in keeping the objects in a local directory
+     */
+    private static class LocalObjectStore implements ObjectStore {
+
+        private final Path root;
+
+        private int puts;
+
+        private LocalObjectStore(final Path root) {
+            this.root = root;
+        }
+
+        @Override
+        public String put(final String key, final InputStream content) throws IOException {
+            final Path object = root.resolve(key);
+            Files.createDirectories(object.getParent());
+            Files.copy(content, object, REPLACE_EXISTING);
+            puts++;
+            return object.toAbsolutePath().toString();
+        }
+
+        @Override
+        public void delete(final String key) throws IOException {
+            Files.delete(root.resolve(key));
+        }
+
+        @Override
+        public String authorization() {
+            return "IAM_ROLE 'arn:aws:iam::0:role/test'";
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Pipelined execution")
+class PipelinedExecutionTest {
+
+    @Test
+    @DisplayName("A retried batch is committed before the next batches")
+    void retriedBatchKeepsItsOrder() throws SQLException {
+        final Map<String, String> table = new ConcurrentHashMap<>();
+        final List<String> executions = new ArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final PipelinedExecution pipeline = new PipelinedExecution(2);
+        try {
+            pipeline.submit(() -> {
+                while (attempts.incrementAndGet() == 1) {
+                    executions.add("first deadlocked");
+                    Thread.sleep(100);
+                }
+                executions.add("first");
+                table.put("id1", "older value");
+                return emptyList();
+            });
+            pipeline.submit(() -> {
+                executions.add("second");
+                table.put("id1", "newer value");
+                return emptyList();
+            });
+            pipeline.drain();
+        } finally {
+            pipeline.close();
+        }
+        assertEquals(asList("first deadlocked", "first", "second"), executions);
+        assertEquals("newer value", table.get("id1"));
+    }
+
+    @Test
+    @DisplayName("Closing the pipeline releases the resources of the batches not executed")
+    void closeReleasesPendingResources() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean firstReleased = new AtomicBoolean();
+        final AtomicBoolean secondReleased = new AtomicBoolean();
+        final PipelinedExecution pipeline = new PipelinedExecution(3);
+        pipeline.submit(() -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return emptyList();
+        }, () -> firstReleased.set(true));
+        pipeline.submit(() -> emptyList(), () -> secondReleased.set(true));
+        started.await();
+        pipeline.close();
+        assertTrue(firstReleased.get());
+        assertTrue(secondReleased.get());
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Retry policy")
+class RetryPolicyTest {
+
+    @Test
+    @DisplayName("Retry only on the retryable sql states")
+    void retryableStates() {
+        final RetryPolicy policy = new RetryPolicy(new HashSet<>(asList("40001", "40P01")));
+        assertTrue(policy.canRetry(new SQLException("deadlock", "40P01")));
+        assertFalse(policy.canRetry(new SQLException("duplicate key", "23505")));
+        final SQLException batchError = new SQLException("batch failed", "XJ208");
+        batchError.setNextException(new SQLException("serialization failure", "40001"));
+        assertTrue(policy.canRetry(batchError));
+    }
+
+    @Test
+    @DisplayName("Capped delays and limited retries")
+    void cappedDelays() {
+        final RetryPolicy policy = new RetryPolicy(new HashSet<>(asList("40001")));
+        final SQLException deadlock = new SQLException("deadlock", "40001");
+        for (int i = 0; i < RetryPolicy.MAX_RETRIES; i++) {
+            assertTrue(policy.canRetry(deadlock));
+            final long delay = policy.nextDelay();
+            assertTrue(delay >= 0 && delay <= RetryPolicy.MAX_DELAY, "delay " + delay);
+        }
+        assertFalse(policy.canRetry(deadlock));
+    }
+}
@@ -22,12 +22,14 @@ import org.talend.components.jdbc.DisabledDatabases;
 import org.talend.components.jdbc.WithDatabasesEnvironments;
 import org.talend.components.jdbc.configuration.InputQueryConfig;
 import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.configuration.PartitionStrategy;
 import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.dataset.SqlQueryDataset;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.datastore.JdbcConnection;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.junit.environment.Environment;
 import org.talend.sdk.component.junit.environment.builtin.beam.DirectRunnerEnvironment;
 import org.talend.sdk.component.runtime.manager.chain.Job;
@@ -36,6 +38,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.talend.components.jdbc.Database.SNOWFLAKE;
 import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
 
@@ -159,4 +162,70 @@ class InputTest extends BaseJdbcTest {
         assertEquals(rowCount, collectedData.size());
     }
 
+    @TestTemplate
+    @DisplayName("TableName - typed numeric values")
+    void typedNumericValues(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 1, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+
+        final Record record = getComponentsHandler().getCollectedData(Record.class).iterator().next();
+        assertEquals(Schema.Type.LONG, record.getSchema().getEntries().stream()
+                .filter(entry -> "t_long".equals(entry.getName())).findFirst().orElseThrow(IllegalStateException::new).getType());
+        assertEquals(10000000000L, record.getLong("t_long"));
+        assertEquals(1000.85d, record.getDouble("t_double"));
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - partitioned read by range")
+    void partitionedTableNameByRange(final TestInfo testInfo, final JdbcTestContainer container) {
+        assertPartitionedRead(testInfo, container, PartitionStrategy.RANGE);
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - partitioned read by modulo")
+    void partitionedTableNameByModulo(final TestInfo testInfo, final JdbcTestContainer container) {
+        assertPartitionedRead(testInfo, container, PartitionStrategy.MODULO);
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - partitioned read on a non integral column")
+    void partitionedTableNameByStringColumn(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 10, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.setPartitionColumn("t_string");
+        config.setMaxPartitions(4);
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        final Exception error = assertThrows(Exception.class,
+                () -> Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI)
+                        .component("collector", "test://collector").connections().from("jdbcInput").to("collector").build()
+                        .run());
+        assertTrue(error.getMessage().contains("'t_string'"));
+    }
+
+    private void assertPartitionedRead(final TestInfo testInfo, final JdbcTestContainer container,
+            final PartitionStrategy strategy) {
+        final int rowCount = 50;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.setPartitionColumn("id");
+        config.setPartitionStrategy(strategy);
+        config.setMaxPartitions(4);
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+
+        final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+        assertEquals(rowCount, collectedData.size());
+        assertEquals(rowCount, collectedData.stream().map(record -> record.getInt("id")).distinct().count());
+    }
+
 }
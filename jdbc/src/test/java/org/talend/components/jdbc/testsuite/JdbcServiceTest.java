@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.testsuite;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.talend.components.jdbc.Database.SNOWFLAKE;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.talend.components.jdbc.BaseJdbcTest;
+import org.talend.components.jdbc.Disabled;
+import org.talend.components.jdbc.DisabledDatabases;
+import org.talend.components.jdbc.WithDatabasesEnvironments;
+import org.talend.components.jdbc.configuration.DistributionStrategy;
+import org.talend.components.jdbc.containers.JdbcTestContainer;
+import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.service.Service;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.junit.environment.Environment;
+import org.talend.sdk.component.junit.environment.builtin.ContextualEnvironment;
+
+@DisplayName("JdbcService")
+@Environment(ContextualEnvironment.class)
+@ExtendWith({ WithDatabasesEnvironments.class })
+@DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake credentials need to be setup on ci") })
+class JdbcServiceTest extends BaseJdbcTest {
+
+    @Service
+    private RecordBuilderFactory recordBuilderFactory;
+
+    @TestTemplate
+    @DisplayName("Shared pool - releasing a data source keeps the pool open for the other ones")
+    void sharedPool(final JdbcTestContainer container) throws SQLException {
+        final JdbcConnection dataStore = newConnection(container);
+        final JdbcService.JdbcDatasource first = getJdbcService().createDataSource(dataStore);
+        try (final JdbcService.JdbcDatasource second = getJdbcService().createDataSource(dataStore)) {
+            try (final Connection firstConnection = first.getConnection();
+                    final Connection secondConnection = second.getConnection()) {
+                assertTrue(firstConnection.isValid(10));
+                assertTrue(secondConnection.isValid(10));
+            }
+            first.close();
+            assertThrows(SQLException.class, first::getConnection);
+            try (final Connection connection = second.getConnection()) {
+                assertTrue(connection.isValid(10));
+            }
+        }
+    }
+
+    @TestTemplate
+    @DisplayName("Shared pool - the pool max size caps the connections of all its leases")
+    void sharedPoolSize(final JdbcTestContainer container) throws SQLException {
+        final JdbcConnection dataStore = newConnection(container);
+        // a pool of its own
+        dataStore.setJdbcUrl(dataStore.getJdbcUrl() + ";pool=size");
+        dataStore.setConnectionTimeOut(1);
+        final List<Connection> connections = new ArrayList<>();
+        try (final JdbcService.JdbcDatasource first = getJdbcService().createDataSource(dataStore);
+                final JdbcService.JdbcDatasource second = getJdbcService().createDataSource(dataStore)) {
+            assertEquals(first.getMaxConnections(), second.getMaxConnections());
+            try {
+                for (int i = 0; i < first.getMaxConnections(); i++) {
+                    connections.add((i % 2 == 0 ? first : second).getConnection());
+                }
+                assertThrows(SQLException.class, second::getConnection);
+            } finally {
+                for (final Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    @TestTemplate
+    @DisplayName("Driver cache - pools of the same driver share its classloader")
+    void driverClassLoaderCache(final JdbcTestContainer container) throws SQLException {
+        // two pools of their own
+        final JdbcConnection dataStore = newConnection(container);
+        dataStore.setJdbcUrl(dataStore.getJdbcUrl() + ";pool=driver");
+        final JdbcConnection otherDataStore = newConnection(container);
+        otherDataStore.setJdbcUrl(otherDataStore.getJdbcUrl() + ";pool=otherDriver");
+        try (final JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(dataStore);
+                final Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(10));
+            final long loads = getJdbcService().getDriverClassLoaderLoads();
+            final long hits = getJdbcService().getDriverClassLoaderHits();
+            try (final JdbcService.JdbcDatasource otherDataSource = getJdbcService().createDataSource(otherDataStore);
+                    final Connection otherConnection = otherDataSource.getConnection()) {
+                assertTrue(otherConnection.isValid(10));
+            }
+            assertEquals(loads, getJdbcService().getDriverClassLoaderLoads());
+            assertEquals(hits + 1, getJdbcService().getDriverClassLoaderHits());
+        }
+    }
+
+    @TestTemplate
+    @DisplayName("Table metadata cache - created tables update the cache")
+    void tableMetadataCache(final TestInfo testInfo, final JdbcTestContainer container) throws SQLException {
+        final String testTable = getTestTableName(testInfo);
+        final JdbcConnection dataStore = newConnection(container);
+        try (final JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(dataStore)) {
+            assertFalse(getJdbcService().getTableMetadata(testTable, dataSource).isExists());
+            PlatformFactory.get(dataStore, getI18nMessage()).createTableIfNotExist(getJdbcService(), dataSource, testTable,
+                    singletonList("id"), emptyList(), DistributionStrategy.KEYS, emptyList(), -1,
+                    singletonList(recordBuilderFactory.newRecordBuilder().withInt("id", 1).withString("email", "a@b.c").build()));
+            final JdbcService.TableMetadata metadata = getJdbcService().getTableMetadata(testTable, dataSource);
+            assertTrue(metadata.isExists());
+            assertEquals(2, metadata.getColumns().size());
+            assertTrue(JdbcService.checkTableExistence(testTable, dataSource));
+        }
+    }
+}
@@ -25,7 +25,9 @@ import org.talend.components.jdbc.configuration.DistributionStrategy;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.Reject;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.service.Service;
@@ -101,6 +103,66 @@ class OutputTest extends BaseJdbcTest {
         assertEquals(rowCount, countAll(testTableName, container));
     }
 
+    @TestTemplate
+    @DisplayName("Bulk load - valid query")
+    void bulkLoad(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.BULK_LOAD.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisplayName("Insert - records flushed by batches smaller than the group")
+    void insertWithSmallBatches(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setBatchSize(7);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisplayName("Insert - pipelined batches")
+    void pipelinedInsert(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setBatchSize(7);
+        configuration.setPipelineDepth(2);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
     @TestTemplate
     @DisplayName("Create table - combined primary keys")
     void createTableWithCombinedPrimaryKeys(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -163,7 +225,8 @@ class OutputTest extends BaseJdbcTest {
         // create a table from valid record
         final JdbcConnection dataStore = newConnection(container);
         final String testTableName = getTestTableName(testInfo);
-        try (final Connection connection = getJdbcService().createDataSource(dataStore).getConnection()) {
+        try (final JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(dataStore);
+                final Connection connection = dataSource.getConnection()) {
             PlatformFactory.get(dataStore, getI18nMessage()).createTableIfNotExist(connection, testTableName, emptyList(),
                     emptyList(), DistributionStrategy.KEYS, emptyList(), -1, Collections.singletonList(builder.build()));
         }
@@ -215,6 +278,70 @@ class OutputTest extends BaseJdbcTest {
         assertEquals(rowCount, countAll(testTableName, container));
     }
 
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake database don't enforce PK and UNIQUE constraint") })
+    @DisplayName("Insert - duplicate records on the reject output")
+    void insertDuplicateRecordsRejected(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        final int rowCount = 5;
+        insertRows(testTableName, container, rowCount, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setKeys(singletonList("id"));
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).component("collector", "test://collector").connections()
+                .from("rowGenerator").to("jdbcOutput").from("jdbcOutput", "reject").to("collector").build().run();
+        final List<Record> rejects = getComponentsHandler().getCollectedData(Record.class);
+        getComponentsHandler().resetState();
+        assertEquals(rowCount, rejects.size());
+        assertTrue(rejects.stream().allMatch(reject -> reject.getString("message") != null
+                && reject.getRecord("record").getOptionalInt("id").isPresent()));
+        // the rejects without sql state nor error code have the same schema
+        final Record discard = new Reject("discarded", rejects.get(0).getRecord("record")).toRecord(recordBuilderFactory);
+        assertTrue(Stream.concat(rejects.stream(), Stream.of(discard))
+                .allMatch(reject -> reject.getSchema().getEntries().stream().map(Schema.Entry::getName).collect(toList())
+                        .equals(Stream.of("sqlState", "errorCode", "message", "record").collect(toList()))));
+        assertEquals(null, discard.getString("sqlState"));
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake database don't enforce PK and UNIQUE constraint") })
+    @DisplayName("Insert - multi rows statement with some duplicate records")
+    void insertPartiallyDuplicateRecords(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 20, false, null);
+        assertEquals(20, countAll(testTableName, container));
+        insertRows(testTableName, container, 50, false, null);
+        assertEquals(50, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake database don't enforce PK and UNIQUE constraint") })
+    @DisplayName("Insert - duplicate records in the middle of the batch")
+    void insertInterleavedDuplicateRecords(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 20, false, null);
+        // keep only the rows 11 to 20
+        final OutputConfig deleteConfig = new OutputConfig();
+        deleteConfig.setDataset(newTableNameDataset(testTableName, container));
+        deleteConfig.setActionOnData(OutputConfig.ActionOnData.DELETE.name());
+        deleteConfig.setKeys(singletonList("id"));
+        final String config = configurationByExample().forInstance(deleteConfig).configured().toQueryString();
+        Job.components()
+                .component("userGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(10, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("userGenerator").to("jdbcOutput")
+                .build().run();
+        assertEquals(10, countAll(testTableName, container));
+        insertRows(testTableName, container, 50, false, null);
+        assertEquals(50, countAll(testTableName, container));
+    }
+
     @TestTemplate
     @DisplayName("Delete - valid query")
     void delete(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -285,6 +412,30 @@ class OutputTest extends BaseJdbcTest {
                 .map(r -> ofNullable(r.getString("T_STRING")).orElseGet(() -> r.getString("t_string"))).collect(toSet()));
     }
 
+    @TestTemplate
+    @DisplayName("Update - parallel writer lanes")
+    void updateWithWriterLanes(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 50;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPDATE.name());
+        configuration.setKeys(singletonList("id"));
+        configuration.setWriterLanes(4);
+        final String updateConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("userGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, "updated", withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + updateConfig).connections().from("userGenerator").to("jdbcOutput")
+                .build().run();
+
+        final List<Record> users = readAll(testTableName, container);
+        assertEquals(rowCount, users.size());
+        assertEquals(IntStream.rangeClosed(1, rowCount).mapToObj(i -> "updated" + i).collect(toSet()), users.stream()
+                .map(r -> ofNullable(r.getString("T_STRING")).orElseGet(() -> r.getString("t_string"))).collect(toSet()));
+    }
+
     @TestTemplate
     @DisplayName("Update - no keys")
     void updateWithNoKeys(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -329,6 +480,95 @@ class OutputTest extends BaseJdbcTest {
                 .map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING"))).collect(toSet()));
     }
 
+    @TestTemplate
+    @DisplayName("Upsert - combined keys")
+    void upsertWithCombinedKeys(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int existingRecords = 20;
+        final String testTableName = getTestTableName(testInfo);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id", "string_id"));
+        final String insertConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(existingRecords, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + insertConfig).connections().from("rowGenerator").to("jdbcOutput")
+                .build().run();
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPSERT.name());
+        final String upsertConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int newRecords = existingRecords * 2;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(newRecords, false, "updated", withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + upsertConfig).connections().from("rowGenerator").to("jdbcOutput")
+                .build().run();
+
+        final List<Record> users = readAll(testTableName, container);
+        assertEquals(newRecords, users.size());
+        assertEquals(IntStream.rangeClosed(1, newRecords).mapToObj(i -> "updated" + i).collect(toSet()), users.stream()
+                .map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING"))).collect(toSet()));
+    }
+
+    @TestTemplate
+    @DisplayName("Upsert - ignored columns are not updated")
+    void upsertWithIgnoredColumns(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int existingRecords = 20;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, existingRecords, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPSERT.name());
+        configuration.setKeys(singletonList("id"));
+        configuration.setIgnoreUpdate(singletonList("t_string"));
+        final String upsertConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int newRecords = existingRecords * 2;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(newRecords, false, "updated", withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + upsertConfig).connections().from("rowGenerator").to("jdbcOutput")
+                .build().run();
+
+        final List<Record> users = readAll(testTableName, container);
+        assertEquals(newRecords, users.size());
+        assertEquals(
+                IntStream.rangeClosed(1, newRecords).mapToObj(i -> (i <= existingRecords ? "customer" : "updated") + i)
+                        .collect(toSet()),
+                users.stream().map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING")))
+                        .collect(toSet()));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake database don't enforce PK and UNIQUE constraint") })
+    @DisplayName("Upsert - new records of the same key in a group")
+    void upsertSameKeyInGroup(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        getComponentsHandler().setInputData(Stream
+                .of(recordBuilderFactory.newRecordBuilder().withInt("id", 1).withString("t_string", "first").build(),
+                        recordBuilderFactory.newRecordBuilder().withInt("id", 1).withString("t_string", "second").build(),
+                        recordBuilderFactory.newRecordBuilder().withInt("id", 2).withString("t_string", "other").build())
+                .collect(toList()));
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(singletonList("id"));
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components().component("emitter", "test://emitter").component("jdbcOutput", "Jdbc://Output?" + config)
+                .component("collector", "test://collector").connections().from("emitter").to("jdbcOutput")
+                .from("jdbcOutput", "reject").to("collector").build().run();
+        final List<Record> rejects = getComponentsHandler().getCollectedData(Record.class);
+        getComponentsHandler().resetState();
+
+        // the second record fails on insert and updates the row of the first one
+        assertEquals(emptyList(), rejects);
+        final List<Record> users = readAll(testTableName, container);
+        assertEquals(2, users.size());
+        assertEquals(Stream.of("second", "other").collect(toSet()), users.stream()
+                .map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING"))).collect(toSet()));
+    }
+
     @TestTemplate
     @DisplayName("Insert - Date type handling")
     void dateTypesTest(final TestInfo testInfo, final JdbcTestContainer container) throws ParseException {
@@ -22,10 +22,14 @@ import org.talend.components.jdbc.Disabled;
 import org.talend.components.jdbc.DisabledDatabases;
 import org.talend.components.jdbc.WithDatabasesEnvironments;
 import org.talend.components.jdbc.configuration.DistributionStrategy;
+import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.platforms.MySQLPlatform;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.output.platforms.PostgreSQLPlatform;
+import org.talend.components.jdbc.output.platforms.SnowflakePlatform;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.service.Service;
@@ -37,6 +41,7 @@ import org.testcontainers.shaded.org.apache.commons.lang.RandomStringUtils;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -44,7 +49,11 @@ import java.util.Date;
 import java.util.List;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.apache.derby.vti.XmlVTI.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.talend.components.jdbc.Database.SNOWFLAKE;
 
 @DisplayName("Platforms")
@@ -130,4 +139,56 @@ class PlatformTests extends BaseJdbcTest {
         }
     }
 
+    @TestTemplate
+    @DisplayName("Upsert - native upsert needs a unique index on the keys")
+    void supportsNativeUpsert(final TestInfo testInfo, final JdbcTestContainer container) throws SQLException {
+        final String testTable = getTestTableName(testInfo);
+        final JdbcConnection dataStore = newConnection(container);
+        try (final JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(dataStore)) {
+            try (final Connection connection = dataSource.getConnection()) {
+                final Platform platform = PlatformFactory.get(dataStore, getI18nMessage());
+                platform.createTableIfNotExist(connection, testTable, asList("id"), emptyList(), DistributionStrategy.KEYS,
+                        emptyList(), 100, records);
+                // the index lookup only depends on the jdbc metadata
+                final Platform onConflict = new PostgreSQLPlatform(getI18nMessage());
+                final Platform onDuplicateKey = new MySQLPlatform(getI18nMessage());
+                assertTrue(onConflict.supportsNativeUpsert(connection, testTable, singletonList("id")));
+                assertFalse(onConflict.supportsNativeUpsert(connection, testTable, singletonList("email")));
+                assertTrue(onDuplicateKey.supportsNativeUpsert(connection, testTable, singletonList("id")));
+
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE UNIQUE INDEX " + platform.identifier(testTable + "_email") + " ON "
+                            + platform.identifier(testTable) + " (" + platform.identifier("email") + ")");
+                }
+                connection.commit();
+                assertTrue(onConflict.supportsNativeUpsert(connection, testTable, singletonList("email")));
+                assertFalse(onConflict.supportsNativeUpsert(connection, testTable, asList("id", "email")));
+                assertFalse(onDuplicateKey.supportsNativeUpsert(connection, testTable, singletonList("id")));
+            }
+        }
+    }
+
+    @TestTemplate
+    @DisplayName("Range partitions - the bounds don't overflow on the whole long range")
+    void rangePartitionsOfLongRange(final JdbcTestContainer container) {
+        final Platform platform = PlatformFactory.get(newConnection(container), getI18nMessage());
+        final String id = platform.identifier("id");
+        assertEquals(
+                asList("(" + id + " < -4611686018427387904 OR " + id + " IS NULL)",
+                        id + " >= -4611686018427387904 AND " + id + " < 0", id + " >= 0 AND " + id + " < 4611686018427387904",
+                        id + " >= 4611686018427387904"),
+                platform.rangePartitions("id", Long.MIN_VALUE, Long.MAX_VALUE, 4));
+        assertEquals(asList("(" + id + " <= " + Long.MAX_VALUE + " OR " + id + " IS NULL)", id + " > " + Long.MAX_VALUE),
+                platform.rangePartitions("id", Long.MAX_VALUE, Long.MAX_VALUE, 4));
+    }
+
+    @TestTemplate
+    @DisplayName("Batch size - the native bulk loads and Snowflake send bigger batches")
+    void defaultBatchSize(final JdbcTestContainer container) {
+        final Platform platform = PlatformFactory.get(newConnection(container), getI18nMessage());
+        assertEquals(1000, platform.defaultBatchSize(OutputConfig.ActionOnData.INSERT));
+        assertEquals(platform.bulkLoader().isPresent() ? 100000 : 1000,
+                platform.defaultBatchSize(OutputConfig.ActionOnData.BULK_LOAD));
+        assertEquals(100000, new SnowflakePlatform(getI18nMessage()).defaultBatchSize(OutputConfig.ActionOnData.INSERT));
+    }
 }